@@ -70,6 +70,23 @@ public abstract class JsonError {
         }
     }
 
+    /**
+     * Wraps a {@link JsonParseException} where checked
+     * exceptions cannot be thrown, such as while
+     * iterating over parsed elements.
+     * @see io.github.nerjalnosk.jsonlight.parser.JsonStreamParser
+     */
+    public static class UncheckedJsonParseException extends RuntimeException {
+        public UncheckedJsonParseException(JsonParseException e) {
+            super(e);
+        }
+
+        @Override
+        public synchronized JsonParseException getCause() {
+            return (JsonParseException) super.getCause();
+        }
+    }
+
     /**
      * Thrown when trying to parse a feature that has been
      * disabled via the current
@@ -2,13 +2,28 @@ package io.github.nerjalnosk.jsonlight;
 
 import io.github.nerjalnosk.jsonlight.elements.JsonElement;
 import io.github.nerjalnosk.jsonlight.elements.JsonString;
+import io.github.nerjalnosk.jsonlight.parser.ByteParser;
 import io.github.nerjalnosk.jsonlight.parser.FileParser;
+import io.github.nerjalnosk.jsonlight.parser.IndexedParser;
+import io.github.nerjalnosk.jsonlight.parser.JsonStreamParser;
+import io.github.nerjalnosk.jsonlight.parser.LazyParser;
+import io.github.nerjalnosk.jsonlight.parser.MappedFileParser;
+import io.github.nerjalnosk.jsonlight.parser.ParallelArrayParser;
+import io.github.nerjalnosk.jsonlight.parser.ParserOptions;
 import io.github.nerjalnosk.jsonlight.parser.StringParser;
 import io.github.nerjalnosk.jsonlight.parser.options.ParseSet;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.stream.Stream;
 
 import static io.github.nerjalnosk.jsonlight.JsonError.*;
 
@@ -102,11 +117,97 @@ public abstract class JsonParser {
      */
     public static String stringify(JsonElement json, ParseSet parseSet, int space, int tabulation, char tabChar)
             throws RecursiveJsonElementException {
-        String tab = stringRepeat(String.format("%c",tabChar),tabulation);
+        String tab = stringRepeat(String.valueOf(tabChar),tabulation);
         String indentation = stringRepeat(tab,space);
         return json.stringify(parseSet, indentation, tab);
     }
 
+    /**
+     * Writes the JSON text of the given JsonElement straight to the
+     * specified sink, without building the whole text first.
+     * @param json the JsonElement to write
+     * @param out the sink to write to
+     * @param parseSet the stringification options
+     * @throws IOException if the sink cannot be written to
+     */
+    public static void write(JsonElement json, Appendable out, ParseSet parseSet)
+            throws IOException, RecursiveJsonElementException {
+        write(json, out, parseSet, 0, 2, ' ');
+    }
+
+    /**
+     * Writes the JSON text of the given JsonElement straight to the
+     * specified sink, without building the whole text first.
+     * @param json the JsonElement to write
+     * @param out the sink to write to
+     * @param parseSet the stringification options
+     * @param space the indentation level (for recursive parsing, uses 0 by default)
+     * @param tabulation the number of tabChar added in the beginning of each line by indentation level
+     * @param tabChar the character ti use for indentations
+     * @throws IOException if the sink cannot be written to
+     */
+    public static void write(JsonElement json, Appendable out, ParseSet parseSet, int space, int tabulation,
+                             char tabChar) throws IOException, RecursiveJsonElementException {
+        String tab = stringRepeat(String.valueOf(tabChar),tabulation);
+        String indentation = stringRepeat(tab,space);
+        json.write(out, parseSet, indentation, tab);
+    }
+
+    /**
+     * Writes the JSON text of the given JsonElement to the specified
+     * writer through a buffer, flushing it once done. The writer is
+     * not closed.<br>
+     * As written text cannot be taken back, the element is
+     * explored beforehand, in search of circular references.
+     * @param json the JsonElement to write
+     * @param out the writer to write to
+     * @param parseSet the stringification options
+     * @throws IOException if the writer cannot be written to
+     */
+    public static void write(JsonElement json, Writer out, ParseSet parseSet)
+            throws IOException, RecursiveJsonElementException {
+        BufferedWriter writer = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out);
+        write(json, (Appendable) writer, parseSet);
+        writer.flush();
+    }
+
+    /**
+     * Writes the UTF-8 encoded JSON text of the given JsonElement to
+     * the specified stream through a {@link Utf8Writer}, flushing it
+     * once done. The stream is not closed.<br>
+     * As written text cannot be taken back, the element is
+     * explored beforehand, in search of circular references.
+     * @param json the JsonElement to write
+     * @param out the stream to write to
+     * @param parseSet the stringification options
+     * @throws IOException if the stream cannot be written to
+     */
+    public static void write(JsonElement json, OutputStream out, ParseSet parseSet)
+            throws IOException, RecursiveJsonElementException {
+        Utf8Writer writer = new Utf8Writer(out);
+        write(json, writer, parseSet);
+        writer.flush();
+    }
+
+    /**
+     * Returns the UTF-8 encoded JSON text of the given JsonElement,
+     * encoded straight into bytes.
+     * @param json the JsonElement to write
+     * @param parseSet the stringification options
+     * @return the element's UTF-8 encoded JSON text
+     */
+    public static ByteBuffer writeBytes(JsonElement json, ParseSet parseSet) throws RecursiveJsonElementException {
+        Utf8Writer writer = new Utf8Writer();
+        try {
+            write(json, writer, parseSet);
+            writer.flush();
+        } catch (IOException e) {
+            // in-memory writers never throw
+            throw new UncheckedIOException(e);
+        }
+        return writer.toByteBuffer();
+    }
+
     /**
      * Parses a string to a JsonElement. The JsonElement
      * type will depend on the String content.<br>
@@ -123,6 +224,90 @@ public abstract class JsonParser {
         return parser.parse();
     }
 
+    /**
+     * Parses a string to a JsonElement, parsing slices of
+     * its root element in parallel if it is a large array.
+     * @param s String: the String to parse
+     * @return the parsed JsonElement
+     * @throws JsonParseException if the given string cannot
+     *         be parsed
+     * @see ParallelArrayParser
+     */
+    public static JsonElement jsonifyParallel(String s) throws JsonParseException {
+        return new ParallelArrayParser().parse(s);
+    }
+
+    /**
+     * Parses a string to a JsonElement, only parsing its
+     * nested objects and arrays once their content is
+     * accessed. Errors within nested elements are thus
+     * only raised upon access, as
+     * {@link UncheckedJsonParseException}.
+     * @param s String: the String to parse
+     * @return the parsed JsonElement
+     * @throws JsonParseException if the first level of the
+     *         given string cannot be parsed
+     * @see LazyParser
+     */
+    public static JsonElement jsonifyLazy(String s) throws JsonParseException {
+        return new LazyParser(s).parse();
+    }
+
+    /**
+     * Parses raw UTF-8 bytes to a JsonElement, without
+     * decoding them to a String beforehand. Plain JSON
+     * sources are parsed in two stages, through a
+     * structural index of the bytes.
+     * @param bytes the UTF-8 bytes to parse
+     * @return the parsed JsonElement
+     * @throws JsonParseException if the given bytes cannot
+     *         be parsed
+     * @see IndexedParser
+     */
+    public static JsonElement parseBytes(byte[] bytes) throws JsonParseException {
+        return new IndexedParser(bytes).parse();
+    }
+
+    /**
+     * Parses the remaining UTF-8 bytes of a buffer to a
+     * JsonElement, without decoding them to a String
+     * beforehand. The buffer's position is not affected.
+     * @param buffer the UTF-8 bytes to parse
+     * @return the parsed JsonElement
+     * @throws JsonParseException if the given bytes cannot
+     *         be parsed
+     * @see ByteParser
+     */
+    public static JsonElement parseBytes(ByteBuffer buffer) throws JsonParseException {
+        return new ByteParser(buffer, new ParserOptions.Builder().json5().classic().build()).parse();
+    }
+
+    /**
+     * Parses a UTF-8 stream to a JsonElement, reading it
+     * by blocks. The stream is closed once fully read.
+     * @param stream the UTF-8 stream to parse
+     * @return the parsed JsonElement
+     * @throws JsonParseException if the stream cannot be
+     *         read or parsed
+     * @see ByteParser
+     */
+    public static JsonElement parseStream(InputStream stream) throws JsonParseException {
+        return new ByteParser(stream).parse();
+    }
+
+    /**
+     * Lazily parses a source holding multiple root
+     * elements, either newline-delimited (NDJSON) or
+     * back-to-back, to a stream of JsonElements.<br>
+     * Closing the stream closes the source.
+     * @param reader the source to parse
+     * @return a stream of the source's root elements
+     * @see JsonStreamParser
+     */
+    public static Stream<JsonElement> parseDocuments(Reader reader) {
+        return new JsonStreamParser(reader).stream();
+    }
+
     public static JsonElement parseFile(String s) throws IOException, JsonParseException {
         File f = new File(s);
         return parseFile(f);
@@ -133,6 +318,24 @@ public abstract class JsonParser {
         return parser.parse();
     }
 
+    /**
+     * Parses a file to a JsonElement, optionally mapping
+     * it to memory rather than reading it, which avoids
+     * copying its content to the heap.<br>
+     * Mapped files must be UTF-8 encoded.
+     * @param f the file to parse
+     * @param map whether to map the file to memory
+     * @return the parsed JsonElement
+     * @throws IOException if the file cannot be opened
+     * @throws JsonParseException if the file cannot be
+     *         parsed
+     * @see MappedFileParser
+     */
+    public static JsonElement parseFile(File f, boolean map) throws IOException, JsonParseException {
+        if (!map) return parseFile(f);
+        return new MappedFileParser(f).parse();
+    }
+
     /**
      * Returns whether the specified character is a
      * valid hexadecimal character.
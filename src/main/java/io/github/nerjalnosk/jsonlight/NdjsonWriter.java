@@ -0,0 +1,138 @@
+package io.github.nerjalnosk.jsonlight;
+
+import io.github.nerjalnosk.jsonlight.elements.JsonArray;
+import io.github.nerjalnosk.jsonlight.elements.JsonComment;
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+import io.github.nerjalnosk.jsonlight.elements.JsonObject;
+import io.github.nerjalnosk.jsonlight.parser.options.ArrayParseOptions;
+import io.github.nerjalnosk.jsonlight.parser.options.CommentParseOptions;
+import io.github.nerjalnosk.jsonlight.parser.options.ObjectParseOptions;
+import io.github.nerjalnosk.jsonlight.parser.options.ParseSet;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A writer for newline-delimited JSON (NDJSON)
+ * records, writing each element on its own
+ * line.
+ * </p>
+ * <p>Records are stringified with a copy of the
+ * writer's {@link ParseSet}, forcing arrays and
+ * objects in-line with comma separators, and
+ * comments as block comments, so that each
+ * record fits a single line.<br>
+ * Records are batched, and only written to the
+ * underlying writer once the batch exceeds its
+ * size, or when flushed.
+ * </p>
+ * @see io.github.nerjalnosk.jsonlight.parser.JsonStreamParser
+ * @author nerjal
+ */
+public class NdjsonWriter implements Closeable, Flushable {
+    /**
+     * Default number of chars batched before
+     * being written.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1 << 16;
+    private final Writer out;
+    private final ParseSet parseSet;
+    private final int batchSize;
+    private final StringBuilder batch;
+
+    public NdjsonWriter(Writer out) {
+        this(out, new ParseSet(), DEFAULT_BATCH_SIZE);
+    }
+
+    public NdjsonWriter(Writer out, ParseSet parseSet) {
+        this(out, parseSet, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Instantiates a writer batching records
+     * up to the specified number of chars.
+     * @param out the writer to write records to
+     * @param parseSet the records' stringify
+     *                 options
+     * @param batchSize the number of chars to be
+     *                  batched before being
+     *                  written
+     */
+    public NdjsonWriter(Writer out, ParseSet parseSet, int batchSize) {
+        this.out = out;
+        this.parseSet = inlineSet(parseSet == null ? new ParseSet() : parseSet);
+        this.batchSize = batchSize;
+        this.batch = new StringBuilder(Math.max(16, batchSize));
+    }
+
+    /**
+     * Writes the specified element as a record.
+     * @param element the element to write
+     * @throws IOException if the batch cannot be
+     *         written
+     * @throws RecursiveJsonElementException if
+     *         the element is a non-resolvable
+     *         circular structure
+     */
+    public void write(JsonElement element) throws IOException, RecursiveJsonElementException {
+        this.batch.append(JsonParser.stringify(element, this.parseSet, 0, 0, ' '));
+        this.batch.append('\n');
+        if (this.batch.length() >= this.batchSize) this.writeBatch();
+    }
+
+    /**
+     * Writes all the specified elements as
+     * records.
+     * @param elements the elements to write
+     * @throws IOException if the batch cannot be
+     *         written
+     * @throws RecursiveJsonElementException if
+     *         an element is a non-resolvable
+     *         circular structure
+     */
+    public void writeAll(Iterable<? extends JsonElement> elements) throws IOException, RecursiveJsonElementException {
+        for (JsonElement element : elements) this.write(element);
+    }
+
+    /**
+     * Copies the specified set, forcing single-line
+     * arrays, objects and comments over it.
+     */
+    private static ParseSet inlineSet(ParseSet parseSet) {
+        ParseSet set = parseSet.copy();
+        ArrayParseOptions arrayOptions = (ArrayParseOptions) parseSet.getOptions(JsonArray.class);
+        arrayOptions = arrayOptions == null ? new ArrayParseOptions() : arrayOptions.clone();
+        arrayOptions.setFormat(ArrayParseOptions.ArrayFormat.INLINE);
+        arrayOptions.useLineBreak(false);
+        set.forceOptions(JsonArray.class, arrayOptions);
+        ObjectParseOptions objectOptions = (ObjectParseOptions) parseSet.getOptions(JsonObject.class);
+        objectOptions = objectOptions == null ? new ObjectParseOptions() : objectOptions.clone();
+        objectOptions.allInOneLine(true);
+        objectOptions.useLineBreak(false);
+        set.forceOptions(JsonObject.class, objectOptions);
+        set.forceOptions(JsonComment.class, CommentParseOptions.blockCommentParseOptions(false, false));
+        return set;
+    }
+
+    private void writeBatch() throws IOException {
+        if (this.batch.length() == 0) return;
+        this.out.append(this.batch);
+        this.batch.setLength(0);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.writeBatch();
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.writeBatch();
+        this.out.close();
+    }
+}
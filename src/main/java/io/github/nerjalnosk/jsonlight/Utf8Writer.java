@@ -0,0 +1,219 @@
+package io.github.nerjalnosk.jsonlight;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>A sink encoding chars to UTF-8 straight into
+ * a byte buffer, as they are appended.
+ * </p>
+ * <p>ASCII chars are copied as is, others being
+ * encoded on the fly, without intermediate
+ * strings or encoders. Unpaired surrogates are
+ * encoded as {@code '?'}.<br>
+ * The buffer is either written to an output
+ * stream once full, or grown to hold the whole
+ * output, to be then read as a
+ * {@link ByteBuffer}. It is kept upon
+ * {@link #reset()}, so that a writer may be
+ * reused for many outputs.
+ * </p>
+ * @see JsonParser#write(io.github.nerjalnosk.jsonlight.elements.JsonElement, Appendable,
+ *      io.github.nerjalnosk.jsonlight.parser.options.ParseSet)
+ * @author nerjal
+ */
+public final class Utf8Writer implements Appendable, Flushable {
+    /**
+     * Default size of the bytes buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 13;
+    private final OutputStream out;
+    private byte[] buffer;
+    private int position = 0;
+    private char highSurrogate = 0;
+
+    /**
+     * Instantiates a writer holding its whole
+     * output in memory.
+     */
+    public Utf8Writer() {
+        this(null, DEFAULT_BUFFER_SIZE);
+    }
+
+    public Utf8Writer(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Instantiates a writer writing to the
+     * specified stream each time its buffer
+     * is full.
+     * @param out the stream to write to, or
+     *            {@code null} to hold the whole
+     *            output in memory
+     * @param bufferSize the buffer's size, in
+     *                   bytes
+     */
+    public Utf8Writer(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(16, bufferSize)];
+    }
+
+    @Override
+    public Utf8Writer append(CharSequence csq) throws IOException {
+        if (csq == null) csq = "null";
+        return this.append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Utf8Writer append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) csq = "null";
+        int i = start;
+        while (i < end) {
+            if (this.highSurrogate == 0) {
+                // ASCII fast path
+                int limit = Math.min(end, i + this.buffer.length - this.position);
+                char c;
+                while (i < limit && (c = csq.charAt(i)) < 0x80) {
+                    this.buffer[this.position++] = (byte) c;
+                    i++;
+                }
+                if (i == end) break;
+            }
+            this.append(csq.charAt(i++));
+        }
+        return this;
+    }
+
+    @Override
+    public Utf8Writer append(char c) throws IOException {
+        if (this.position + 4 > this.buffer.length) this.makeRoom();
+        byte[] b = this.buffer;
+        if (this.highSurrogate != 0) {
+            char high = this.highSurrogate;
+            this.highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                b[this.position++] = (byte) (0xF0 | cp >>> 18);
+                b[this.position++] = (byte) (0x80 | (cp >>> 12 & 0x3F));
+                b[this.position++] = (byte) (0x80 | (cp >>> 6 & 0x3F));
+                b[this.position++] = (byte) (0x80 | (cp & 0x3F));
+                return this;
+            }
+            b[this.position++] = '?';
+            return this.append(c);
+        }
+        if (c < 0x80) b[this.position++] = (byte) c;
+        else if (c < 0x800) {
+            b[this.position++] = (byte) (0xC0 | c >>> 6);
+            b[this.position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) this.highSurrogate = c;
+        else if (Character.isLowSurrogate(c)) b[this.position++] = '?';
+        else {
+            b[this.position++] = (byte) (0xE0 | c >>> 12);
+            b[this.position++] = (byte) (0x80 | (c >>> 6 & 0x3F));
+            b[this.position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return this;
+    }
+
+    /**
+     * Writes the buffer to the stream, or grows
+     * it if there is none.
+     */
+    private void makeRoom() throws IOException {
+        if (this.out == null) this.buffer = Arrays.copyOf(this.buffer, this.buffer.length << 1);
+        else {
+            this.out.write(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the stream, and
+     * flushes it.<br>
+     * A pending unpaired surrogate is encoded
+     * as {@code '?'}. Does nothing besides if
+     * the writer holds its output in memory.
+     * @throws IOException if the stream cannot
+     *         be written to
+     */
+    @Override
+    public void flush() throws IOException {
+        if (this.highSurrogate != 0) {
+            this.highSurrogate = 0;
+            this.append('?');
+        }
+        if (this.out == null) return;
+        this.out.write(this.buffer, 0, this.position);
+        this.position = 0;
+        this.out.flush();
+    }
+
+    /**
+     * Returns the number of bytes currently
+     * buffered.
+     * @return the buffer's number of bytes
+     */
+    public int size() {
+        return this.position;
+    }
+
+    /**
+     * Returns whether the writer holds its whole
+     * output in memory, rather than writing it to
+     * a stream.
+     * @return whether the writer has no stream
+     */
+    public boolean isInMemory() {
+        return this.out == null;
+    }
+
+    /**
+     * Discards the bytes buffered past the specified
+     * size, as previously returned by {@link #size()},
+     * so that an output may be taken back. A pending
+     * unpaired surrogate is discarded as well.
+     * @param size the number of bytes to keep
+     * @throws IllegalStateException if the writer
+     *         writes to a stream
+     * @throws IndexOutOfBoundsException if the size
+     *         is negative or past the buffered bytes
+     */
+    public void truncate(int size) {
+        if (this.out != null) throw new IllegalStateException("cannot take back bytes written to a stream");
+        if (size < 0 || size > this.position) throw new IndexOutOfBoundsException(String.valueOf(size));
+        this.position = size;
+        this.highSurrogate = 0;
+    }
+
+    /**
+     * Returns a view of the buffered bytes, only
+     * valid until the writer is appended to or
+     * reset.
+     * @return the buffered bytes
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(this.buffer, 0, this.position).slice();
+    }
+
+    /**
+     * Returns a copy of the buffered bytes.
+     * @return the buffered bytes
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.position);
+    }
+
+    /**
+     * Discards the buffered bytes, keeping the
+     * buffer for further outputs.
+     */
+    public void reset() {
+        this.position = 0;
+        this.highSurrogate = 0;
+    }
+}
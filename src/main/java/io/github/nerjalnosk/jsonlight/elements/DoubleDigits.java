@@ -0,0 +1,188 @@
+package io.github.nerjalnosk.jsonlight.elements;
+
+import java.math.BigInteger;
+
+/**
+ * <p>Finds the shortest decimal digits parsing
+ * back to a double, following Giulietti's
+ * Schubfach algorithm, as {@link Double#toString(double)}
+ * only does since JDK 19.
+ * </p>
+ * <p>Among the shortest decimals rounding to the
+ * double, the closest one is chosen, ties going
+ * to the even digit.<br>
+ * Digits are computed with 128-bit fixed-point
+ * powers of ten, built once, without any string
+ * or intermediate object.
+ * </p>
+ * @author nerjal
+ */
+final class DoubleDigits {
+    /**
+     * Maximum number of digits
+     * of the shortest decimal.
+     */
+    static final int MAX_DIGITS = 17;
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << P - 1;
+    private static final long T_MASK = C_MIN - 1;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = (1L << 63) - 1;
+    // floor(10^-k 2^-r) + 1, with 2^125 <= 10^-k 2^-r < 2^126, split in 63-bit halves
+    private static final long[] G = table();
+
+    private DoubleDigits() {}
+
+    private static long[] table() {
+        long[] g = new long[2 * (K_MAX - K_MIN + 1)];
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int shift = 125 - flog2pow10(-k);
+            BigInteger beta;
+            if (k <= 0) {
+                BigInteger pow = BigInteger.TEN.pow(-k);
+                beta = shift >= 0 ? pow.shiftLeft(shift) : pow.shiftRight(-shift);
+            } else beta = BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(k));
+            BigInteger value = beta.add(BigInteger.ONE);
+            g[2 * (k - K_MIN)] = value.shiftRight(63).longValue();
+            g[2 * (k - K_MIN) + 1] = value.longValue() & MASK_63;
+        }
+        return g;
+    }
+
+    /**
+     * Fills the specified array with the shortest
+     * digits of the specified finite positive
+     * double, without leading nor trailing zeros.
+     * @param v the value to get the digits of
+     * @param digits the array to fill, of at
+     *               least {@link #MAX_DIGITS}
+     * @return the decimal point's position from
+     *         the first digit in the higher half,
+     *         and the number of digits in the
+     *         lower one
+     */
+    static long toDigits(double v, char[] digits) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> P - 1) & 0x7FF;
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            if (0 < mq && mq < P) {
+                long f = c >> mq;
+                // integers, as is
+                if (f << mq == c) return fill(f, 0, digits);
+            }
+            return toDecimal(-mq, c, digits);
+        }
+        if (t == 0) {
+            digits[0] = '0';
+            return 1L << 32 | 1;
+        }
+        return toDecimal(Q_MIN, t, digits);
+    }
+
+    /**
+     * Finds the shortest decimal
+     * of {@code c 2^q}.
+     */
+    private static long toDecimal(int q, long c, char[] digits) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // the lower neighbour is closer
+            cbl = cb - 1;
+            k = flog10ThreeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G[2 * (k - K_MIN)];
+        long g0 = G[2 * (k - K_MIN) + 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        // down to a single digit, unlike Double#toString
+        if (s >= 10) {
+            // s / 10 * 10, one digit shorter
+            long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) return fill(upin ? sp10 : tp10, k, digits);
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) return fill(uin ? s : t, k, digits);
+        // both in, the closest one, ties to even
+        long cmp = vb - (s + t << 1);
+        return fill(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k, digits);
+    }
+
+    /**
+     * Fills the array with the digits
+     * of {@code f 10^e}.
+     */
+    private static long fill(long f, int e, char[] digits) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int length = 0;
+        for (long n = f; n != 0; n /= 10) length++;
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + f % 10);
+            f /= 10;
+        }
+        return (long) (length + e) << 32 | length;
+    }
+
+    /**
+     * Rounds {@code g cp 2^-127} to odd.
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    // Math#multiplyHigh, not available before JDK 9
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = (t & 0xFFFFFFFFL) + x2 * y1;
+        return x1 * y1 + (t >> 32) + (z1 >> 32);
+    }
+
+    // floor(e log10(2))
+    private static int flog10pow2(int e) {
+        return (int) (e * 661971961083L >> 41);
+    }
+
+    // floor(e log10(2) + log10(3/4))
+    private static int flog10ThreeQuartersPow2(int e) {
+        return (int) (e * 661971961083L - 274743187321L >> 41);
+    }
+
+    // floor(e log2(10))
+    private static int flog2pow10(int e) {
+        return (int) (e * 913124641741L >> 38);
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.nerjalnosk.jsonlight.elements;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * <p>An indentation level of a stringification,
+ * as a base indentation followed by a number of
+ * indent increments.
+ * </p>
+ * <p>All levels of a stringification share a
+ * single text, holding the base indentation and
+ * as many increments as the deepest level
+ * reached. Each level is written as a prefix of
+ * said text, and its next level is only built
+ * once, so that nested writes never build
+ * indentation strings.
+ * </p>
+ * @author nerjal
+ */
+public final class Indentation {
+    private final Table table;
+    private final int depth;
+    private final int length;
+    private String string = null;
+
+    private Indentation(Table table, int depth) {
+        this.table = table;
+        this.depth = depth;
+        this.length = table.base.length() + depth * table.increment.length();
+    }
+
+    /**
+     * Returns the first level of a new
+     * indentation.
+     * @param base the base indentation
+     * @param increment the string to increment to
+     *                  the indentation at each
+     *                  level
+     * @return the indentation's first level
+     */
+    public static Indentation of(String base, String increment) {
+        return new Table(base, increment).level(0);
+    }
+
+    /**
+     * Returns the next indentation level.
+     * @return the next indentation level
+     */
+    public Indentation next() {
+        return this.table.level(this.depth + 1);
+    }
+
+    /**
+     * Returns the string incremented to the
+     * indentation at each level.
+     * @return the indentation's increment
+     */
+    public String getIncrement() {
+        return this.table.increment;
+    }
+
+    /**
+     * Appends the indentation to the specified
+     * sink.
+     * @param out the sink to append to
+     * @return the sink
+     * @throws IOException if the sink cannot be
+     *         written to
+     */
+    public Appendable appendTo(Appendable out) throws IOException {
+        return out.append(this.table.text, 0, this.length);
+    }
+
+    @Override
+    public String toString() {
+        if (this.string == null) this.string = this.table.text.substring(0, this.length);
+        return this.string;
+    }
+
+    /**
+     * The text and levels shared by all levels of
+     * an indentation.
+     */
+    private static final class Table {
+        private final String base;
+        private final String increment;
+        private final StringBuilder text;
+        private Indentation[] levels = new Indentation[8];
+
+        private Table(String base, String increment) {
+            this.base = base;
+            this.increment = increment;
+            this.text = new StringBuilder(base);
+        }
+
+        private Indentation level(int depth) {
+            if (depth >= this.levels.length) this.levels = Arrays.copyOf(this.levels, depth << 1);
+            Indentation level = this.levels[depth];
+            if (level == null) {
+                level = new Indentation(this, depth);
+                while (this.text.length() < level.length) this.text.append(this.increment);
+                this.levels[depth] = level;
+            }
+            return level;
+        }
+    }
+}
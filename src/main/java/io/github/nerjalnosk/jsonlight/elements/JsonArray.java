@@ -5,6 +5,7 @@ import io.github.nerjalnosk.jsonlight.JsonError.RecursiveJsonElementException;
 import io.github.nerjalnosk.jsonlight.parser.options.ArrayParseOptions;
 import io.github.nerjalnosk.jsonlight.parser.options.ParseSet;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
@@ -28,10 +29,12 @@ import java.util.function.UnaryOperator;
  *      JsonArray.next();
  *  }}
  * </pre>
- * <p>Warning! Iteration with indexes includes
- * all {@link JsonComment} in the list. Thus
- * retaining indexes while iterating with the
- * included iterator might cause errors.<br>
+ * <p>Indexes only count the array's values,
+ * {@link JsonComment} elements being kept
+ * aside, along with the index of the value
+ * they precede. They are only met through
+ * {@link #forAll} and stringification, at
+ * their place between values.<br>
  * <br></p>
  *
  * <p>The objects stringification relies on options
@@ -47,8 +50,16 @@ import java.util.function.UnaryOperator;
  * @author nerjal
  */
 public class JsonArray extends JsonElement implements Iterable<JsonElement> {
+    private static final JsonComment[] NO_COMMENTS = new JsonComment[0];
+    private static final int[] NO_INDEXES = new int[0];
     private final List<JsonElement> list;
-    private final Set<JsonComment> commentSet;
+    /**
+     * Comments, sorted by the index of the value they
+     * precede, the array's size for trailing ones.
+     */
+    private JsonComment[] comments = NO_COMMENTS;
+    private int[] commentIndexes = NO_INDEXES;
+    private int commentCount = 0;
     private transient ArrayParseOptions parseOptions;
     protected transient int modCount = 0;
 
@@ -57,7 +68,6 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      */
     public JsonArray() {
         this.list = new ArrayList<>();
-        this.commentSet = new HashSet<>();
         this.parseOptions = new ArrayParseOptions();
     }
 
@@ -71,13 +81,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      */
     public JsonArray(Iterable<JsonElement> elements) {
         this.list = new ArrayList<>();
-        this.commentSet = new HashSet<>();
-        elements.forEach(e -> {
-            this.list.add(e);
-            if (e.isComment()) {
-                commentSet.add((JsonComment) e);
-            }
-        });
+        elements.forEach(this::put);
         this.parseOptions = new ArrayParseOptions();
     }
 
@@ -90,12 +94,8 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      *                 values.
      */
     public JsonArray(Collection<JsonElement> elements) {
-        this.list = new ArrayList<>(elements);
-        this.commentSet = new HashSet<>();
-        elements.forEach(e -> {
-            if (e.isComment())
-                commentSet.add((JsonComment) e);
-        });
+        this.list = new ArrayList<>(elements.size());
+        elements.forEach(this::put);
         this.parseOptions = new ArrayParseOptions();
     }
     /**
@@ -106,7 +106,6 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      */
     public JsonArray(ArrayParseOptions options) {
         this.list = new ArrayList<>();
-        this.commentSet = new HashSet<>();
         this.parseOptions = options;
     }
     /**
@@ -120,15 +119,92 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      *                stringification methods
      */
     public JsonArray(Collection<JsonElement> elements, ArrayParseOptions options) {
-        this.list = new ArrayList<>(elements);
-        this.commentSet = new HashSet<>();
-        elements.forEach(e -> {
-            if (e.isComment())
-                commentSet.add((JsonComment) e);
-        });
+        this.list = new ArrayList<>(elements.size());
+        elements.forEach(this::put);
         this.parseOptions = options;
     }
 
+    // comments
+
+    /**
+     * Appends the specified element as is, comments
+     * being set aside.
+     */
+    private void put(JsonElement e) {
+        if (e.isComment()) this.addComment(this.list.size(), (JsonComment) e);
+        else this.list.add(e);
+    }
+
+    /**
+     * Appends the specified element, followed by its
+     * root comments.
+     */
+    private void append(JsonElement e) {
+        this.put(e);
+        if (e.isComment()) return;
+        for (JsonComment comment : e.getRootComments()) this.addComment(this.list.size(), comment);
+        e.clearRootComment();
+    }
+
+    /**
+     * Adds the specified comment before the value at the
+     * specified index, after the comments already there.
+     */
+    private void addComment(int index, JsonComment comment) {
+        int i = this.commentCount;
+        while (i > 0 && this.commentIndexes[i - 1] > index) i--;
+        if (this.commentCount == this.comments.length) {
+            int capacity = Math.max(4, this.commentCount << 1);
+            this.comments = Arrays.copyOf(this.comments, capacity);
+            this.commentIndexes = Arrays.copyOf(this.commentIndexes, capacity);
+        }
+        System.arraycopy(this.comments, i, this.comments, i + 1, this.commentCount - i);
+        System.arraycopy(this.commentIndexes, i, this.commentIndexes, i + 1, this.commentCount - i);
+        this.comments[i] = comment;
+        this.commentIndexes[i] = index;
+        this.commentCount++;
+    }
+
+    /**
+     * Removes the first occurrence of the specified
+     * comment.
+     * @return whether the comment could be found
+     */
+    private boolean removeComment(JsonElement comment) {
+        for (int i = 0; i < this.commentCount; i++) {
+            if (!this.comments[i].equals(comment)) continue;
+            System.arraycopy(this.comments, i + 1, this.comments, i, this.commentCount - i - 1);
+            System.arraycopy(this.commentIndexes, i + 1, this.commentIndexes, i, this.commentCount - i - 1);
+            this.comments[--this.commentCount] = null;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Shifts the indexes of the comments following the
+     * value at the specified index.
+     */
+    private void shiftComments(int index, int shift) {
+        for (int i = this.commentCount - 1; i >= 0 && this.commentIndexes[i] > index; i--) {
+            this.commentIndexes[i] += shift;
+        }
+    }
+
+    /**
+     * Removes the first occurrence of the specified
+     * element, comment or value.
+     * @return whether the element could be found
+     */
+    private boolean delete(JsonElement element) {
+        if (element.isComment()) return this.removeComment(element);
+        int index = this.list.indexOf(element);
+        if (index < 0) return false;
+        this.list.remove(index);
+        this.shiftComments(index, -1);
+        return true;
+    }
+
     /**
      * Changes the object's stringification options
      * @param options the new options to apply
@@ -138,8 +214,8 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
     }
 
     /**
-     * Returns the element of the array stored at the
-     * specified index.
+     * Returns the value of the array stored at the
+     * specified index, comments aside.
      * @param index the index of the element to return
      * @return the element stored in the array at the
      *         specified index
@@ -256,11 +332,12 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      *         array
      */
     public JsonComment[] getAllComments() {
-        return Arrays.copyOf(this.commentSet.toArray(), this.commentSet.size(), JsonComment[].class);
+        return Arrays.copyOf(this.comments, this.commentCount);
     }
 
     /**
-     * Returns the number of elements in this list.<br>
+     * Returns the number of values in this list,
+     * comments aside.<br>
      * If this list contains more than
      * {@code Integer.MAX_VALUE} elements, returns
      * {@code Integer.MAX_VALUE}
@@ -285,18 +362,14 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      *         element is {@code null}
      */
     public boolean remove(JsonElement element) {
-        boolean b = this.list.remove(element);
-        if (b) {
-            modCount++;
-            if (element.isComment())
-                commentSet.remove(element);
-        }
+        boolean b = this.delete(element);
+        if (b) modCount++;
         return b;
     }
 
     /**
-     * Removes the element at the specified position
-     * in this list. All subsequent elements are
+     * Removes the value at the specified position
+     * in this list. All subsequent values are
      * shifted to the left. Returns the element that
      * was removed from the list.
      * @param index the index of the element to be
@@ -309,9 +382,8 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      */
     public JsonElement remove(int index) {
         JsonElement e = this.list.remove(index);
+        this.shiftComments(index, -1);
         modCount++;
-        if (e.isComment())
-            commentSet.remove(e);
         return e;
     }
 
@@ -333,11 +405,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
     public Collection<JsonElement> removeAll(Collection<JsonElement> elements) {
         List<JsonElement> returnList = new ArrayList<>();
         elements.forEach(e -> {
-            if (list.remove(e)) {
-                returnList.add(e);
-                if (e.isComment())
-                    commentSet.remove(e);
-            }
+            if (this.delete(e)) returnList.add(e);
         });
         modCount++;
         return returnList;
@@ -349,21 +417,18 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      * @param element element to be added to this list
      */
     public void add(JsonElement element) {
-        this.list.add(element);
-        if (element.isComment())
-            commentSet.add((JsonComment) element);
-        else {
-            this.list.addAll(Arrays.asList(element.getRootComments()));
-            element.clearRootComment();
-        }
+        this.append(element);
         modCount++;
     }
 
     /**
      * Inserts the specified element at the specified
-     * position in this list. Shifts the element
+     * position in this list. Shifts the value
      * currently at that position (if any) and any
-     * subsequent elements to the right.
+     * subsequent values to the right.<br>
+     * Comments are inserted before the value at the
+     * specified position, after the comments already
+     * there.
      * @param index the index at which the specified
      *              element is to be inserted
      * @param element the element to be inserted
@@ -374,13 +439,13 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      *         {@code (index < 0 || index > size())}
      */
     public void add(int index, JsonElement element) {
-        this.list.add(index, element);
-        int k = index+1;
         if (element.isComment()) {
-            commentSet.add((JsonComment) element);
-        } else for (JsonComment comment : element.getRootComments()) {
-                this.list.add(k, comment);
-                k++;
+            if (index < 0 || index > this.list.size()) throw new IndexOutOfBoundsException("Index: " + index);
+            this.addComment(index, (JsonComment) element);
+        } else {
+            this.list.add(index, element);
+            this.shiftComments(index, 1);
+            for (JsonComment comment : element.getRootComments()) this.addComment(index + 1, comment);
         }
         element.clearRootComment();
         modCount++;
@@ -401,13 +466,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      */
     public void addAll(Iterable<JsonElement> elements) {
         elements.forEach(e -> {
-            if (e == null) return;
-            this.list.add(e);
-            if (e.isComment()) commentSet.add((JsonComment) e);
-            else {
-                list.addAll(Arrays.asList(e.getRootComments()));
-                e.clearRootComment();
-            }
+            if (e != null) this.append(e);
         });
         modCount++;
     }
@@ -424,20 +483,14 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      */
     public void addAll(JsonElement[] elements) {
         for (JsonElement e : elements) {
-            if (e == null) continue;
-            this.list.add(e);
-            if (e.isComment()) commentSet.add((JsonComment) e);
-            else {
-                list.addAll(Arrays.asList(e.getRootComments()));
-                e.clearRootComment();
-            }
+            if (e != null) this.append(e);
         }
         modCount++;
     }
 
     /**
-     * Replaces each element of this list with the
-     * result of applying the operator to that element.
+     * Replaces each value of this list with the
+     * result of applying the operator to that value.
      * Errors or runtime exception thrown by the
      * operator are relayed to the caller.
      * @param operator the operator to apply to each
@@ -483,20 +536,26 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
         JsonArray arr = new JsonArray();
         arr.pushAll(a1);
         arr.push(a2);
-        for (JsonComment comment : a2.commentSet) {
-            if (arr.commentSet.contains(comment)) continue;
-            arr.add(comment);
-        }
+        arr.addMissingComments(a2);
         for (JsonArray array : arrays) {
             arr.push(array);
-            for (JsonComment comment : array.commentSet) {
-                if (arr.commentSet.contains(comment)) continue;
-                arr.add(comment);
-            }
+            arr.addMissingComments(array);
         }
         return arr;
     }
 
+    /**
+     * Appends the comments of the specified array this one
+     * doesn't already hold.
+     */
+    private void addMissingComments(JsonArray array) {
+        for (JsonComment comment : array.getAllComments()) {
+            boolean found = false;
+            for (int i = 0; i < this.commentCount && !found; i++) found = this.comments[i].equals(comment);
+            if (!found) this.add(comment);
+        }
+    }
+
     @Override
     public boolean isJsonArray() {
         return true;
@@ -619,69 +678,86 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
     @Override
     protected String stringify(ParseSet parseSet, String indentation, String indentIncrement, ExplorationStack stack)
             throws RecursiveJsonElementException {
+        return this.writeToString(parseSet, indentation, indentIncrement, stack);
+    }
+
+    @Override
+    protected void write(Appendable out, ParseSet parseSet, Indentation indentation, ExplorationStack stack)
+            throws RecursiveJsonElementException, IOException {
         Objects.requireNonNull(stack);
         if (parseSet == null) parseSet = new ParseSet();
         ArrayParseOptions setOptions = (ArrayParseOptions) parseSet.getOptions(this.getClass());
-        if (this.parseOptions.isChanged() || setOptions == null) {
+        if (this.parseOptions.isChanged() && !parseSet.isForced(this.getClass()) || setOptions == null) {
             setOptions = this.parseOptions;
         }
         ArrayParseOptions options = setOptions;
-        if (this.list.isEmpty()) return "[]";
-        if (stack.stack(this.hashCode())) {
+        if (this.list.isEmpty() && this.commentCount == 0) {
+            out.append("[]");
+            return;
+        }
+        if (stack.stack(this)) {
             if (!options.resolveCircular()) {
                 throw new RecursiveJsonElementException("Recursive JSON structure in JsonArray");
             }
-            return this.asRef();
+            if (!this.getId().isPresent()) stack.circularReference(this);
+            out.append(this.asRef());
+            return;
         }
-        StringBuilder builder = new StringBuilder();
         if (this.getId().isPresent() && options.resolveCircular()) {
-            builder.append(this.stringifiedId()).append(' ');
+            out.append(this.stringifiedId()).append(' ');
         }
-        builder.append('[');
+        out.append('[');
         int count = 0;
         int index = 0;
-        int lastComma = 0;
+        int size = this.list.size();
+        int total = size + this.commentCount;
+        // trailing comments follow the last value
+        int lastValue = total - 1;
+        for (int i = this.commentCount - 1; i >= 0 && this.commentIndexes[i] == size; i--) lastValue--;
+        int value = 0;
+        int comment = 0;
         long maxLine = options.getNumPerLine();
-        boolean endOnComment = false;
         boolean lineBreakIter = options.useLineBreakAsIterator();
         boolean nextLineBreak = !options.isAllInOneLine();
-        for (JsonElement e : this.list) {
+        Indentation childIndentation = indentation.next();
+        while (index < total) {
+            JsonElement e = comment < this.commentCount && this.commentIndexes[comment] <= value
+                    ? this.comments[comment++] : this.list.get(value++);
             if (nextLineBreak) {
-                builder.append('\n');
-                builder.append(indentation).append(indentIncrement);
+                childIndentation.appendTo(out.append('\n'));
             } else {
-                builder.append(' ');
+                out.append(' ');
             }
-            builder.append(e.stringify(parseSet, String.format("%s%s",indentation,indentIncrement),indentIncrement, stack));
+            e.write(out, parseSet, childIndentation, stack);
             index++;
             if (e.isComment()) {
-                endOnComment = true;
-                nextLineBreak = true;
+                // only line comments need to end lines in inline arrays
+                nextLineBreak = !options.isAllInOneLine() || !((JsonComment) e).writesBlock(parseSet);
                 count = 0;
             } else {
                 count++;
                 nextLineBreak = count >= maxLine;
                 if (count >= maxLine) count = 0;
-                if (index < size() && !(lineBreakIter && !options.isAllInOneLine())){
-                    lastComma = builder.length();
-                    builder.append(",");
+                // no comma past the last value, unless iterating over line breaks
+                if (index < total && !(lineBreakIter && !options.isAllInOneLine())
+                        && (index <= lastValue || lineBreakIter)) {
+                    out.append(',');
                 }
             }
         }
-        if (endOnComment && lastComma != 0 && !lineBreakIter) builder.deleteCharAt(lastComma);
-        if (nextLineBreak) builder.append('\n').append(indentation);
-        else builder.append(' ');
-        builder.append(']');
-        stack.unstack(this.hashCode());
-        return builder.toString();
+        if (nextLineBreak) indentation.appendTo(out.append('\n'));
+        else out.append(' ');
+        out.append(']');
+        stack.unstack(this);
     }
 
     @Override
     protected ExplorationStack explore(ExplorationStack stack) {
         Objects.requireNonNull(stack);
-        boolean b = stack.add(this);
-        if (b) {
-            this.withId(this.hashCode());
+        if (!stack.add(this)) {
+            // already on the path, thus circular
+            this.withNewId();
+            return stack;
         }
         final ExplorationStack fStack = stack;
         this.forEach(e -> e.explore(fStack));
@@ -711,7 +787,15 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
      *         replace elements in this list
      */
     public void forAll(Consumer<? super JsonElement> action) {
-        this.list.forEach(action);
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        int size = this.list.size();
+        int c = 0;
+        for (int i = 0; i <= size; i++) {
+            while (c < this.commentCount && this.commentIndexes[c] <= i) action.accept(this.comments[c++]);
+            if (i < size) action.accept(this.list.get(i));
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
     }
 
     @Override
@@ -780,11 +864,7 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
 
         @Override
         public boolean hasNext() {
-            if (cursor == size()) return false;
-            for (int i = cursor; i < size(); i++) {
-                if (!list.get(i).isComment()) return true;
-            }
-            return false;
+            return cursor < size();
         }
 
         @Override
@@ -794,7 +874,6 @@ public class JsonArray extends JsonElement implements Iterable<JsonElement> {
                 JsonElement element = get(cursor);
                 lastRet = cursor;
                 cursor++;
-                if (element.isComment()) return next();
                 return element;
             } catch (IndexOutOfBoundsException e) {
                 checkForComodification();
@@ -169,19 +169,37 @@ public final class JsonComment extends JsonElement {
         return this.value;
     }
 
+    private CommentParseOptions options(ParseSet parseSet) {
+        CommentParseOptions setOptions = (CommentParseOptions) parseSet.getOptions(this.getClass());
+        return parseOptions.isChanged() && !parseSet.isForced(this.getClass()) || setOptions == null ?
+                parseOptions : setOptions;
+    }
+
+    /**
+     * Returns whether the comment is stringified as a
+     * block comment with the specified parse set, either
+     * being one or forced to by block comment options.
+     */
+    boolean writesBlock(ParseSet parseSet) {
+        return this.isBlock || parseSet != null && parseSet.isForced(this.getClass()) &&
+                this.options(parseSet).isBlockComment();
+    }
+
     @Override
     protected String stringify(ParseSet parseSet, String indentation, String indentIncrement, ExplorationStack stack) {
         if (parseSet == null) parseSet = new ParseSet();
-        CommentParseOptions setOptions = (CommentParseOptions) parseSet.getOptions(this.getClass());
-        CommentParseOptions options = parseOptions.isChanged() ? parseOptions :
-                setOptions == null ? parseOptions : setOptions;
-        if (!this.isBlock) return "// "+this.value;
+        CommentParseOptions options = this.options(parseSet);
+        if (!this.writesBlock(parseSet)) return "// "+this.value;
         StringBuilder b = new StringBuilder("/*");
+        boolean first = true;
         for (String s : this.getSplitValue()) {
             if (s.isEmpty()) continue;
             if (options.usesIndent()) b.append('\n').append(indentation);
+            else if (!first) b.append(' ');
             if (options.doesNewlineAsterisk()) b.append("* ");
-            b.append(s);
+            // a comment end within the value would close the block early
+            b.append(s.replace("*/", "* /"));
+            first = false;
         }
         if (options.usesIndent() && options.doesNewlineAsterisk())
             b.append('\n').append(indentation);
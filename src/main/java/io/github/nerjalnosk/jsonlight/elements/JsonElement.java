@@ -2,14 +2,18 @@ package io.github.nerjalnosk.jsonlight.elements;
 
 import io.github.nerjalnosk.jsonlight.JsonError;
 import io.github.nerjalnosk.jsonlight.JsonError.RecursiveJsonElementException;
+import io.github.nerjalnosk.jsonlight.Utf8Writer;
 import io.github.nerjalnosk.jsonlight.parser.options.ParseSet;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This is the base class for all possible JSON element
@@ -20,6 +24,8 @@ import java.util.Optional;
  * @author nerjal
  */
 public abstract class JsonElement implements Serializable {
+    // highest reference ID given so far, new ones being above it
+    private static final AtomicLong LAST_ID = new AtomicLong();
     private JsonComment[] comments = new JsonComment[]{};
     private Long id;
 
@@ -31,6 +37,7 @@ public abstract class JsonElement implements Serializable {
 
     protected JsonElement(long id) {
         this.id = id;
+        LAST_ID.accumulateAndGet(id, Math::max);
     }
 
     /**
@@ -49,6 +56,17 @@ public abstract class JsonElement implements Serializable {
     public final void withId(long l) {
         if (this.id == null && l > 0) {
             this.id = l;
+            LAST_ID.accumulateAndGet(l, Math::max);
+        }
+    }
+
+    /**
+     * Gives the element a new reference ID if it doesn't already
+     * have one, above all the IDs given so far.
+     */
+    protected final void withNewId() {
+        if (this.id == null) {
+            this.id = LAST_ID.incrementAndGet();
         }
     }
 
@@ -380,7 +398,7 @@ public abstract class JsonElement implements Serializable {
      */
     public final String stringify(ParseSet parseSet, String indentation, String indentIncrement)
             throws RecursiveJsonElementException {
-        return this.stringify(parseSet, indentation, indentIncrement, this.explore());
+        return this.stringifyOnce(parseSet, indentation, indentIncrement);
     }
 
     /**
@@ -398,7 +416,7 @@ public abstract class JsonElement implements Serializable {
      *         one of themselves, which would end up in loop parsing.
      */
     public final String stringify(String indentation, String indentIncrement) throws RecursiveJsonElementException {
-        return this.stringify(new ParseSet(), indentation, indentIncrement, this.explore());
+        return this.stringifyOnce(new ParseSet(), indentation, indentIncrement);
     }
 
     /**
@@ -415,7 +433,7 @@ public abstract class JsonElement implements Serializable {
      *         one of themselves, which would end up in loop parsing.
      */
     public final String stringify(ParseSet parseSet, String indentation) throws RecursiveJsonElementException {
-        return this.stringify(parseSet, indentation, "  ", this.explore());
+        return this.stringifyOnce(parseSet, indentation, "  ");
     }
 
     /**
@@ -430,7 +448,7 @@ public abstract class JsonElement implements Serializable {
      *         one of themselves, which would end up in loop parsing.
      */
     public final String stringify(ParseSet parseSet) throws RecursiveJsonElementException {
-        return this.stringify(parseSet, "", "  ", this.explore());
+        return this.stringifyOnce(parseSet, "", "  ");
     }
 
     /**
@@ -445,7 +463,7 @@ public abstract class JsonElement implements Serializable {
      *         one of themselves, which would end up in loop parsing.
      */
     public final String stringify(String indentation) throws RecursiveJsonElementException {
-        return this.stringify(new ParseSet(), indentation, "  ", this.explore());
+        return this.stringifyOnce(new ParseSet(), indentation, "  ");
     }
 
     /**
@@ -463,7 +481,7 @@ public abstract class JsonElement implements Serializable {
      *         one of themselves, which would end up in loop parsing.
      */
     public final String stringifyRoot(ParseSet parseSet, String indentIncrement) throws RecursiveJsonElementException {
-        return this.stringify(parseSet, "", indentIncrement, this.explore());
+        return this.stringifyOnce(parseSet, "", indentIncrement);
     }
 
     /**
@@ -479,7 +497,7 @@ public abstract class JsonElement implements Serializable {
      *         one of themselves, which would end up in loop parsing.
      */
     public final String stringifyRoot(String indentIncrement) throws RecursiveJsonElementException {
-        return this.stringify(new ParseSet(), "", indentIncrement, this.explore());
+        return this.stringifyOnce(new ParseSet(), "", indentIncrement);
     }
 
     /**
@@ -492,24 +510,169 @@ public abstract class JsonElement implements Serializable {
      *         one of themselves, which would end up in loop parsing.
      */
     public final String stringify() throws RecursiveJsonElementException {
-        return this.stringify(new ParseSet(),"", "  ", this.explore());
+        return this.stringifyOnce(new ParseSet(), "", "  ");
+    }
+
+    /**
+     * Writes the JSON text corresponding to this JsonElement to the specified
+     * sink, recursively writing the internal elements if there are, at the
+     * according indentation level.<br>
+     * Defaults to appending the element's stringified text, containers
+     * writing their children straight to the sink instead.
+     * @param out the sink to write to
+     * @param parseSet the default stringification options for this object
+     *                 and its children.
+     * @param indentation the indentation level at which should be the
+     *                    element, hence the one-lower level of its children
+     * @param stack The foolproof security check to avoid recursive
+     *              stringification.
+     * @throws RecursiveJsonElementException If the element or one of its
+     *         children contains an element already in the stack or
+     *         one of themselves, which would end up in loop parsing.
+     * @throws IOException if the sink cannot be written to
+     */
+    protected void write(Appendable out, ParseSet parseSet, Indentation indentation, ExplorationStack stack)
+            throws RecursiveJsonElementException, IOException {
+        out.append(this.stringify(parseSet, indentation.toString(), indentation.getIncrement(), stack));
+    }
+
+    /**
+     * Writes the JSON text corresponding to this JsonElement to the specified
+     * sink, recursively writing the internal elements if there are, with the
+     * according base indentation and level indent incrementation.<br>
+     * {@link StringBuilder} and in-memory {@link Utf8Writer} sinks are
+     * written in a single pass, the element only being explored and
+     * written again if a circular reference is met. Other sinks, such as
+     * writers and streams, cannot take back written text, thus are always
+     * written after exploring the element.
+     * @param out the sink to write to
+     * @param parseSet the default stringification options for this object
+     *                 and its children.
+     * @param indentation the base indent at which should be the element,
+     *                    hence the one-lower level of its children
+     * @param indentIncrement the string to increment to the indentation at
+     *                        each indentation level, recursively to the
+     *                        element's children as well as their own, etc.
+     * @throws RecursiveJsonElementException If the element or one of its
+     *         children contains an element already in the stack or
+     *         one of themselves, which would end up in loop parsing.
+     * @throws IOException if the sink cannot be written to
+     */
+    public final void write(Appendable out, ParseSet parseSet, String indentation, String indentIncrement)
+            throws RecursiveJsonElementException, IOException {
+        Indentation base = Indentation.of(indentation, indentIncrement);
+        // written text can be taken back, thus tried in a single pass
+        if (out instanceof StringBuilder) {
+            StringBuilder builder = (StringBuilder) out;
+            int start = builder.length();
+            try {
+                this.write(builder, parseSet, base, new ExplorationStack(true));
+                return;
+            } catch (CircularStructure e) {
+                builder.setLength(start);
+            }
+        } else if (out instanceof Utf8Writer && ((Utf8Writer) out).isInMemory()) {
+            Utf8Writer writer = (Utf8Writer) out;
+            int start = writer.size();
+            try {
+                this.write(writer, parseSet, base, new ExplorationStack(true));
+                return;
+            } catch (CircularStructure e) {
+                writer.truncate(start);
+            }
+        }
+        this.write(out, parseSet, base, this.explore());
+    }
+
+    /**
+     * Returns the JSON String corresponding to this JsonElement, written in
+     * a single pass, finding circular references on the fly.<br>
+     * The element is only explored beforehand, and written again, if said
+     * pass meets a circular reference to an element without ID.
+     */
+    private String stringifyOnce(ParseSet parseSet, String indentation, String indentIncrement)
+            throws RecursiveJsonElementException {
+        try {
+            return this.stringify(parseSet, indentation, indentIncrement, new ExplorationStack(true));
+        } catch (CircularStructure e) {
+            return this.stringify(parseSet, indentation, indentIncrement, this.explore());
+        }
+    }
+
+    /**
+     * Returns the JSON String corresponding to this JsonElement, written
+     * through {@link #write(Appendable, ParseSet, Indentation, ExplorationStack)}.
+     */
+    protected final String writeToString(ParseSet parseSet, String indentation, String indentIncrement,
+                                         ExplorationStack stack) throws RecursiveJsonElementException {
+        StringBuilder builder = new StringBuilder();
+        try {
+            this.write(builder, parseSet, Indentation.of(indentation, indentIncrement), stack);
+        } catch (IOException e) {
+            // builders never throw
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
     }
 
     /**
      * Element exploration stack, allows to explore for circular
-     * structure detection.
+     * structure detection.<br>
+     * Elements are looked up by identity, in an open-addressing
+     * set holding the elements of the current exploration or
+     * stringification path, themselves stacked by depth. Pushing
+     * and popping an element thus costs a constant time.
      */
     protected static final class ExplorationStack {
         /**
          * Not using an object, for the sake of performance.
-         * Sorted by hashcode.
+         * Linearly probed by identity hash, always at most
+         * half full.
          */
-        private JsonElement[] elements;
-        private int[] stringificationIds;
+        private JsonElement[] table;
+        private JsonElement[] path;
+        private int depth;
+        // whether the structure wasn't explored beforehand
+        private final boolean unexplored;
 
         private ExplorationStack() {
-            this.elements = new JsonElement[0];
-            this.stringificationIds = new int[0];
+            this(false);
+        }
+
+        private ExplorationStack(boolean unexplored) {
+            this.table = new JsonElement[16];
+            this.path = new JsonElement[8];
+            this.depth = 0;
+            this.unexplored = unexplored;
+        }
+
+        private static int slot(JsonElement e, int mask) {
+            int h = System.identityHashCode(e) * 0x9E3779B9;
+            return (h ^ h >>> 16) & mask;
+        }
+
+        /**
+         * Returns the table index of the provided element, or of
+         * the empty slot ending its probing sequence if absent.
+         */
+        private int indexOf(JsonElement e) {
+            int mask = this.table.length - 1;
+            int i = slot(e, mask);
+            JsonElement k;
+            while ((k = this.table[i]) != null && k != e) i = (i + 1) & mask;
+            return i;
+        }
+
+        private void grow() {
+            JsonElement[] old = this.table;
+            this.table = new JsonElement[old.length << 1];
+            int mask = this.table.length - 1;
+            for (JsonElement e : old) {
+                if (e == null) continue;
+                int i = slot(e, mask);
+                while (this.table[i] != null) i = (i + 1) & mask;
+                this.table[i] = e;
+            }
         }
 
         /**
@@ -521,29 +684,16 @@ public abstract class JsonElement implements Serializable {
          */
         public boolean add(JsonElement e) {
             Objects.requireNonNull(e);
-            int hash = e.hashCode();
-            int i = 0;
-            boolean add = false;
-            // TODO: optimize finding element/placement
-            while (i < this.elements.length) {
-                int j = this.elements[i].hashCode();
-                if (j < hash) i++;
-                else {
-                    if (j > hash) add = true;
-                    break;
-                }
-            }
-            if (add) {
-                int l = this.elements.length;
-                JsonElement[] arr = Arrays.copyOf(Arrays.copyOfRange(this.elements, 0, i), l+1);
-                arr [i] = e;
-                while (i < l) {
-                    arr[i+1] = this.elements[i];
-                    i++;
-                }
-                this.elements = arr;
+            int i = this.indexOf(e);
+            if (this.table[i] != null) return false;
+            if (this.depth << 1 >= this.table.length) {
+                this.grow();
+                i = this.indexOf(e);
             }
-            return add;
+            this.table[i] = e;
+            if (this.depth == this.path.length) this.path = Arrays.copyOf(this.path, this.depth << 1);
+            this.path[this.depth++] = e;
+            return true;
         }
 
         /**
@@ -552,42 +702,37 @@ public abstract class JsonElement implements Serializable {
          */
         public void remove(JsonElement e) {
             Objects.requireNonNull(e);
-            int hash = e.hashCode();
-            int i = 0;
-            boolean slice = false;
-            while (i < this.elements.length) {
-                int j = this.elements[i].hashCode();
-                if (j < hash) i++;
-                else {
-                    if (j == hash) slice = true;
-                    break;
-                }
-            }
-            if (slice) {
-                int l = this.elements.length-1;
-                JsonElement[] arr = Arrays.copyOf(Arrays.copyOfRange(this.elements, 0, i-1), l);
-                while (i < l) {
-                    arr[i] = this.elements[i+1];
-                    i++;
-                }
-                this.elements = arr;
+            int i = this.indexOf(e);
+            if (this.table[i] == null) return;
+            // shift back the following entries of the probing sequence
+            int mask = this.table.length - 1;
+            int j = i;
+            while (true) {
+                this.table[i] = null;
+                JsonElement k;
+                int home;
+                do {
+                    j = (j + 1) & mask;
+                    if ((k = this.table[j]) == null) {
+                        this.pop(e);
+                        return;
+                    }
+                    home = slot(k, mask);
+                } while (i <= j ? i < home && home <= j : i < home || home <= j);
+                this.table[i] = k;
+                i = j;
             }
         }
 
         /**
-         * Returns whether the provided hash is already in the stack.
-         * @param hash The hash to look for in the stack.
-         * @return Whether the provided hash is already in the stack.
+         * Removes the provided element from the path, usually
+         * found on its top.
          */
-        boolean has(int hash) {
-            int i = 0;
-            do {
-                int h = this.elements[i].hashCode();
-                if (h == hash) return true;
-                if (h > hash) return false;
-                i++;
-            } while (i < this.elements.length);
-            return false;
+        private void pop(JsonElement e) {
+            int i = this.depth - 1;
+            while (i > 0 && this.path[i] != e) i--;
+            System.arraycopy(this.path, i + 1, this.path, i, this.depth - i - 1);
+            this.path[--this.depth] = null;
         }
 
         /**
@@ -597,76 +742,61 @@ public abstract class JsonElement implements Serializable {
          */
         public boolean has(JsonElement e) {
             Objects.requireNonNull(e);
-            return has(e.hashCode());
+            return this.table[this.indexOf(e)] != null;
         }
 
-        @SuppressWarnings("DuplicatedCode")
-        public boolean stack(int i) {
-            final int h = this.stringificationIds.length;
-            // if empty
-            if (this.stringificationIds.length == 0) {
-                this.stringificationIds = new int[]{i};
-                return false;
-            }
-            // if extremes = target
-            if (this.stringificationIds[0] == i || this.stringificationIds[h-1] == i) return true;
-            // if lower end over target
-            if (this.stringificationIds[0] > i) {
-                int[] arr = new int[h+1];
-                arr[0] = i;
-                System.arraycopy(this.stringificationIds, 0, arr, 1, h);
-                this.stringificationIds = arr;
-                return false;
-            }
-            // if higher end below target
-            if (this.stringificationIds[h-1] < i) {
-                int[] arr = Arrays.copyOf(this.stringificationIds, h+1);
-                arr[h] = i;
-                this.stringificationIds = arr;
-                return false;
-            }
-            int k = h/2;
-            int d = k;
-            int p = 0;
-            // bubble search for target/pos
-            while (d >= 1) {
-                int n = this.stringificationIds[k];
-                if (n == i) return true;
-                int t = k;
-                if (n < i) k += Math.abs(k-p)/2;
-                else k -= Math.abs(k-p)/2;
-                d = Math.abs(t-k);
-                p = t;
-            }
-            int[] arr = Arrays.copyOf(Arrays.copyOfRange(this.stringificationIds, 0, k), h+1);
-            arr[k] = i;
-            System.arraycopy(this.stringificationIds, k, arr, k+1, h-k);
-            this.stringificationIds = arr;
-            return false;
+        /**
+         * Returns the number of elements in the stack, hence the
+         * depth of the current path.
+         * @return The stack's depth.
+         */
+        public int depth() {
+            return this.depth;
         }
 
-        @SuppressWarnings("DuplicatedCode")
-        public void unstack(int i) {
-            final int h = this.stringificationIds.length;
-            if (this.stringificationIds[0] > i || this.stringificationIds[h-1] < i) return;
-            // bubble search
-            int k = h/2;
-            int d = k;
-            int p = 0;
-            while (d >= 1) {
-                int n = this.stringificationIds[k];
-                if (n == i) {
-                    int[] arr = Arrays.copyOf(Arrays.copyOfRange(this.stringificationIds, 0, k), h-1);
-                    System.arraycopy(this.stringificationIds, k+1, arr, k, h-k-1);
-                    this.stringificationIds = arr;
-                    return;
-                }
-                int t = k;
-                if (n < i) k += Math.abs(k-p)/2;
-                else k -= Math.abs(k-p)/2;
-                d = Math.abs(t-k);
-                p = t;
-            }
+        /**
+         * Stacks the provided element for stringification, if it
+         * isn't already being stringified.
+         * @param e The element to stack.
+         * @return Whether the element was already stacked, thus
+         *         part of a circular structure.
+         */
+        public boolean stack(JsonElement e) {
+            return !this.add(e);
+        }
+
+        /**
+         * Unstacks the provided element once stringified.
+         * @param e The element to unstack.
+         */
+        public void unstack(JsonElement e) {
+            this.remove(e);
+        }
+
+        /**
+         * Signals a circular reference to the provided stacked element,
+         * which has no ID, thus wasn't written along with its own.<br>
+         * If the structure wasn't explored beforehand, aborts the
+         * stringification for it to be explored and run again.
+         * Otherwise gives the element a new ID.
+         * @param e The element circularly referenced.
+         */
+        public void circularReference(JsonElement e) {
+            if (this.unexplored) throw CircularStructure.INSTANCE;
+            e.withNewId();
+        }
+    }
+
+    /**
+     * Thrown through a single pass stringification upon meeting an
+     * unexpected circular reference, for it to be run again once the
+     * structure is explored.
+     */
+    private static final class CircularStructure extends RuntimeException {
+        private static final CircularStructure INSTANCE = new CircularStructure();
+
+        private CircularStructure() {
+            super(null, null, false, false);
         }
     }
 
@@ -3,9 +3,10 @@ package io.github.nerjalnosk.jsonlight.elements;
 import io.github.nerjalnosk.jsonlight.parser.options.NumberParseOptions;
 import io.github.nerjalnosk.jsonlight.parser.options.ParseSet;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.text.DecimalFormat;
 
 /**
  * <p>A JsonElement allowing instantiation of
@@ -21,12 +22,24 @@ import java.text.DecimalFormat;
  * decimal, hexadecimal or scientific
  * notation.
  * </p>
+ * <p>Values are held as a primitive long or
+ * double whenever possible, a
+ * {@link BigDecimal} only being held for
+ * those which do not fit either, or built
+ * when requested.
+ * </p>
  * By default, stringification is set to
  * return an integer decimal string of the
  * number.
  * @author nerjal
  */
 public class JsonNumber extends JsonElement {
+    private static final byte LONG = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte BIG = 2;
+    private byte kind;
+    // a long, or a double's raw bits
+    private long bits;
     private BigDecimal value;
     private transient NumberParseOptions parseOptions;
 
@@ -34,7 +47,7 @@ public class JsonNumber extends JsonElement {
      * A new JsonNumber with a null value (0)
      */
     public JsonNumber() {
-        this(BigDecimal.ZERO, new NumberParseOptions());
+        this(0L, new NumberParseOptions());
     }
 
     /**
@@ -42,7 +55,7 @@ public class JsonNumber extends JsonElement {
      * @param i the value of the new JsonNumber
      */
     public JsonNumber(int i) {
-        this(BigDecimal.valueOf(i), new NumberParseOptions());
+        this((long) i, new NumberParseOptions());
     }
 
     /**
@@ -50,7 +63,7 @@ public class JsonNumber extends JsonElement {
      * @param f the value of the new JsonNumber
      */
     public JsonNumber(float f) {
-        this(BigDecimal.valueOf(f), new NumberParseOptions());
+        this((double) f, new NumberParseOptions());
     }
 
     /**
@@ -58,7 +71,7 @@ public class JsonNumber extends JsonElement {
      * @param l the value of the new JsonNumber
      */
     public JsonNumber(long l) {
-        this(BigDecimal.valueOf(l), new NumberParseOptions());
+        this(l, new NumberParseOptions());
     }
 
     /**
@@ -66,7 +79,31 @@ public class JsonNumber extends JsonElement {
      * @param d the value of the new JsonNumber
      */
     public JsonNumber(double d) {
-        this(BigDecimal.valueOf(d), new NumberParseOptions());
+        this(d, new NumberParseOptions());
+    }
+
+    /**
+     * A new JsonNumber with the specified value
+     * and stringification options.
+     * @param l the new instance's value
+     * @param options the new instance's
+     *                stringification option
+     */
+    public JsonNumber(long l, NumberParseOptions options) {
+        this.setLong(l);
+        this.parseOptions = options;
+    }
+
+    /**
+     * A new JsonNumber with the specified value
+     * and stringification options.
+     * @param d the new instance's value
+     * @param options the new instance's
+     *                stringification option
+     */
+    public JsonNumber(double d, NumberParseOptions options) {
+        this.setDouble(d);
+        this.parseOptions = options;
     }
 
     /**
@@ -77,12 +114,26 @@ public class JsonNumber extends JsonElement {
      *                stringification option
      */
     public JsonNumber (Number n, NumberParseOptions options) {
-        if (n instanceof BigInteger) this.value = new BigDecimal((BigInteger) n);
-        else if (n instanceof BigDecimal) this.value = (BigDecimal) n;
-        else this.value = BigDecimal.valueOf(n.doubleValue());
+        this.setValue(n);
         this.parseOptions = options;
     }
 
+    private void setLong(long l) {
+        this.kind = LONG;
+        this.bits = l;
+        this.value = null;
+    }
+
+    private void setDouble(double d) {
+        this.kind = DOUBLE;
+        this.bits = Double.doubleToRawLongBits(d);
+        this.value = null;
+    }
+
+    private double doubleBits() {
+        return Double.longBitsToDouble(this.bits);
+    }
+
     /**
      * Returns a new JsonNumber with the specified
      * string parsed to an integer as value, and
@@ -163,9 +214,19 @@ public class JsonNumber extends JsonElement {
      * @param n the number's new value
      */
     public void setValue(Number n) {
-        if (n instanceof BigInteger) this.value = new BigDecimal((BigInteger) n);
-        else if (n instanceof BigDecimal) this.value = (BigDecimal) n;
-        else this.value = BigDecimal.valueOf(n.doubleValue());
+        if (n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte) {
+            this.setLong(n.longValue());
+        } else if (n instanceof BigInteger) {
+            BigInteger i = (BigInteger) n;
+            if (i.bitLength() < 64) this.setLong(i.longValue());
+            else {
+                this.kind = BIG;
+                this.value = new BigDecimal(i);
+            }
+        } else if (n instanceof BigDecimal) {
+            this.kind = BIG;
+            this.value = (BigDecimal) n;
+        } else this.setDouble(n.doubleValue());
     }
 
     /**
@@ -195,86 +256,162 @@ public class JsonNumber extends JsonElement {
     public JsonNumber getAsJsonNumber() {
         return this;
     }
+    /**
+     * Returns the number's value, as a
+     * {@link Long} or {@link Double} if held
+     * as a primitive, or as a {@link BigDecimal}
+     * otherwise.
+     * @return the number's value
+     */
     @Override
     public Number getAsNumber() {
-        return this.value;
+        switch (this.kind) {
+            case LONG: return this.bits;
+            case DOUBLE: return this.doubleBits();
+            default: return this.value;
+        }
     }
 
     @Override
     public byte getAsByte() {
-        return this.value.byteValue();
+        return (byte) this.getAsInt();
     }
 
     @Override
     public short getAsShort() {
-        return this.value.shortValue();
+        return (short) this.getAsInt();
     }
     @Override
     public int getAsInt() {
-        return this.value.intValue();
+        switch (this.kind) {
+            case LONG: return (int) this.bits;
+            case DOUBLE: return (int) this.doubleBits();
+            default: return this.value.intValue();
+        }
     }
     @Override
     public long getAsLong() {
-        return this.value.longValue();
+        switch (this.kind) {
+            case LONG: return this.bits;
+            case DOUBLE: return (long) this.doubleBits();
+            default: return this.value.longValue();
+        }
     }
     @Override
     public float getAsFloat() {
-        return this.value.floatValue();
+        return (float) this.getAsDouble();
     }
     @Override
     public double getAsDouble() {
-        return this.value.doubleValue();
+        switch (this.kind) {
+            case LONG: return this.bits;
+            case DOUBLE: return this.doubleBits();
+            default: return this.value.doubleValue();
+        }
     }
     @Override
     public BigInteger getAsBigInt() {
-        return this.value.toBigInteger();
+        if (this.kind == LONG) return BigInteger.valueOf(this.bits);
+        return this.getAsBigDecimal().toBigInteger();
     }
+
+    /**
+     * Returns the number's value as a
+     * {@link BigDecimal}, built from its
+     * primitive value if needed.
+     * @return the number's value
+     * @throws NumberFormatException if the
+     *         number is infinite or
+     *         {@code NaN}
+     */
     @Override
     public BigDecimal getAsBigDecimal() {
-        return this.value;
+        switch (this.kind) {
+            case LONG: return BigDecimal.valueOf(this.bits);
+            case DOUBLE: return BigDecimal.valueOf(this.doubleBits());
+            default: return this.value;
+        }
     }
 
     @Override
     protected String stringify(ParseSet parseSet, String indentation, String indentIncrement, ExplorationStack stack) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            this.write(builder, this.options(parseSet));
+        } catch (IOException e) {
+            // builders never throw
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    protected void write(Appendable out, ParseSet parseSet, Indentation indentation, ExplorationStack stack)
+            throws IOException {
+        this.write(out, this.options(parseSet));
+    }
+
+    private NumberParseOptions options(ParseSet parseSet) {
         NumberParseOptions setOptions = (NumberParseOptions) parseSet.getOptions(this.getClass());
-        NumberParseOptions options = parseOptions.isChanged() ? parseOptions :
+        return parseOptions.isChanged() ? parseOptions :
                 setOptions == null ? parseOptions : setOptions;
-        int i = (int) Math.pow(10,options.getDecimals());
-        String s;
-        if (options.usesHexadecimal()) {
-            StringBuilder floating = new StringBuilder();
-            BigInteger intCopy = this.value.toBigInteger();
-            if (options.isFloating()) {
-                floating.append(".");
-                BigDecimal frac = this.value.subtract(new BigDecimal(intCopy));
-                int l = Math.max(frac.scale(), options.getDecimals());
-                while (frac.intValue() == 0 && frac.scale() > 0 && l > 0) {
-                    int t = frac.multiply(new BigDecimal(16)).intValue();
-                    floating.append(Integer.toHexString(t));
-                    frac = frac.multiply(new BigDecimal(16)).subtract(new BigDecimal(t));
-                    l--;
-                }
-            }
-            String intPart = intCopy.toString(16);
-            s = intPart + floating;
+    }
+
+    /**
+     * Writes the number's text into the specified
+     * sink.
+     * @param out the sink to write to
+     * @param options the stringification options
+     * @throws IOException if the sink cannot be
+     *         written to
+     */
+    void write(Appendable out, NumberParseOptions options) throws IOException {
+        this.write(out, options.getPlan());
+    }
+
+    private void write(Appendable out, NumberParseOptions.Plan options) throws IOException {
+        if (options.usesHexadecimal() && (this.kind != DOUBLE || Double.isFinite(this.doubleBits()))) {
+            out.append(this.hexString(options));
+            return;
+        }
+        switch (this.kind) {
+            case LONG:
+                NumberWriter.writeLong(out, this.bits, options);
+                break;
+            case DOUBLE:
+                NumberWriter.writeDouble(out, this.doubleBits(), options);
+                break;
+            default:
+                NumberWriter.writeDecimal(out, this.value, options);
         }
-        else if (options.usesScientific()) {
-            DecimalFormat f = options.getFormat();
-            f.setMaximumFractionDigits(Math.max(this.value.scale(), options.getDecimals()));
-            s = f.format(this.value.doubleValue());
+    }
+
+    private String hexString(NumberParseOptions.Plan options) {
+        BigDecimal value = this.getAsBigDecimal();
+        StringBuilder floating = new StringBuilder();
+        BigInteger intCopy = value.toBigInteger();
+        if (options.isFloating()) {
+            floating.append(".");
+            BigDecimal frac = value.subtract(new BigDecimal(intCopy));
+            int l = Math.max(frac.scale(), options.getDecimals());
+            while (frac.intValue() == 0 && frac.scale() > 0 && l > 0) {
+                int t = frac.multiply(new BigDecimal(16)).intValue();
+                floating.append(Integer.toHexString(t));
+                frac = frac.multiply(new BigDecimal(16)).subtract(new BigDecimal(t));
+                l--;
+            }
         }
-        else if (this.getAsDouble() == this.getAsLong()) {
-            this.value.setScale(1);
-            s = options.isInteger() ?
-                    this.value.toPlainString() :
-                    new BigDecimal(this.value.multiply(BigDecimal.valueOf(i)).toBigInteger()).toString();
-        } else s = new BigDecimal(this.value.multiply(BigDecimal.valueOf(i)).toBigInteger()).toString();
-        return s;
+        String intPart = intCopy.toString(16);
+        return intPart + floating;
     }
 
     @Override
     public JsonNumber clone() {
         NumberParseOptions options = this.parseOptions.isChanged() ? this.parseOptions.clone() : new NumberParseOptions();
-        return new JsonNumber(this.value, options);
+        JsonNumber clone = new JsonNumber(0L, options);
+        clone.kind = this.kind;
+        clone.bits = this.bits;
+        clone.value = this.value;
+        return clone;
     }
 }
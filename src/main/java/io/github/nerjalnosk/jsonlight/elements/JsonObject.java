@@ -4,6 +4,7 @@ import io.github.nerjalnosk.jsonlight.parser.options.ObjectParseOptions;
 import io.github.nerjalnosk.jsonlight.parser.options.ParseSet;
 import io.github.nerjalnosk.jsonlight.JsonError;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
@@ -28,10 +29,29 @@ import java.util.function.UnaryOperator;
  * @author nerjal
  */
 public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonNode> {
-    private final Map<String,JsonElement> map;
-    private final transient Set<JsonNode> nodeSet;
-    private final Set<JsonComment> commentSet;
-    private final transient List<JsonNode> orderList;
+    private static final String[] NO_KEYS = new String[0];
+    private static final JsonElement[] NO_VALUES = new JsonElement[0];
+    private static final int[] NO_TABLE = new int[0];
+    // entries' capacity up to which keys are searched linearly
+    private static final int SMALL_SIZE = 8;
+    /**
+     * Entries' keys and values, in insertion order. Comments
+     * are held as entries without key, removed entries as
+     * entries without value until the next compaction.
+     */
+    private String[] keys = NO_KEYS;
+    private JsonElement[] values = NO_VALUES;
+    /**
+     * Indices of the keyed entries, plus one, linearly probed
+     * by key hash. Always at most half full.<br>
+     * Left empty for small objects, whose few keys are
+     * rather compared one by one.
+     */
+    private int[] table = NO_TABLE;
+    // used entries, removed ones included
+    private int end = 0;
+    // live entries, comments included
+    private int count = 0;
     private transient ObjectParseOptions parseOptions;
     protected transient int modCount = 0;
 
@@ -43,10 +63,6 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
     }
 
     public JsonObject(ObjectParseOptions options) {
-        this.map = new HashMap<>();
-        this.nodeSet = new HashSet<>();
-        this.commentSet = new HashSet<>();
-        this.orderList = new ArrayList<>();
         this.parseOptions = options;
     }
 
@@ -58,6 +74,128 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
         this.parseOptions = options;
     }
 
+    // storage
+
+    private static int hash(String key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+
+    /**
+     * Returns the index of the entry with the specified key,
+     * or {@code -1} if there is none.
+     */
+    private int find(String key) {
+        if (key == null) return -1;
+        if (this.table.length == 0) {
+            for (int i = 0; i < this.end; i++) {
+                if (key.equals(this.keys[i])) return i;
+            }
+            return -1;
+        }
+        int mask = this.table.length - 1;
+        int i = hash(key) & mask;
+        int j;
+        while ((j = this.table[i]) != 0) {
+            if (key.equals(this.keys[j - 1])) return j - 1;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Appends a new entry, without key for comments.
+     */
+    private void append(String key, JsonElement value) {
+        if (this.end == this.keys.length) this.makeRoom();
+        int index = this.end++;
+        this.keys[index] = key;
+        this.values[index] = value;
+        this.count++;
+        if (key != null) this.index(key, index);
+        this.modCount++;
+    }
+
+    private void index(String key, int index) {
+        if (this.table.length == 0) return;
+        int mask = this.table.length - 1;
+        int i = hash(key) & mask;
+        while (this.table[i] != 0) i = (i + 1) & mask;
+        this.table[i] = index + 1;
+    }
+
+    private void unindex(String key, int index) {
+        if (this.table.length == 0) return;
+        int mask = this.table.length - 1;
+        int i = hash(key) & mask;
+        while (this.table[i] != index + 1) i = (i + 1) & mask;
+        // shift back the following entries of the probing sequence
+        int j = i;
+        while (true) {
+            this.table[i] = 0;
+            int k;
+            int home;
+            do {
+                j = (j + 1) & mask;
+                if ((k = this.table[j]) == 0) return;
+                home = hash(this.keys[k - 1]) & mask;
+            } while (i <= j ? i < home && home <= j : i < home || home <= j);
+            this.table[i] = k;
+            i = j;
+        }
+    }
+
+    /**
+     * Drops the removed entries, growing the entries' arrays
+     * if mostly live, then rebuilds the table once past the
+     * small objects' size.
+     */
+    private void makeRoom() {
+        int capacity = this.keys.length;
+        if (this.count >= capacity - (capacity >> 2)) capacity = Math.max(4, capacity << 1);
+        String[] k = new String[capacity];
+        JsonElement[] v = new JsonElement[capacity];
+        int j = 0;
+        for (int i = 0; i < this.end; i++) {
+            if (this.values[i] == null) continue;
+            k[j] = this.keys[i];
+            v[j++] = this.values[i];
+        }
+        this.keys = k;
+        this.values = v;
+        this.end = j;
+        this.table = capacity > SMALL_SIZE ? new int[capacity << 1] : NO_TABLE;
+        for (int i = 0; i < j; i++) {
+            if (k[i] != null) this.index(k[i], i);
+        }
+    }
+
+    /**
+     * Removes the entry at the specified index.
+     * @return the entry's value
+     */
+    private JsonElement removeAt(int index) {
+        JsonElement value = this.values[index];
+        if (this.keys[index] != null) this.unindex(this.keys[index], index);
+        this.keys[index] = null;
+        this.values[index] = null;
+        this.count--;
+        while (this.end > 0 && this.values[this.end - 1] == null) this.end--;
+        this.modCount++;
+        return value;
+    }
+
+    /**
+     * Adds the specified comment, unless the object already
+     * holds it without key.
+     */
+    private void addMissingComment(JsonComment comment) {
+        for (int i = 0; i < this.end; i++) {
+            if (this.keys[i] == null && comment.equals(this.values[i])) return;
+        }
+        this.add(null, comment);
+    }
+
     // get
 
     /**
@@ -69,12 +207,12 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      * no such child in the object
      */
     public JsonElement get(String key) throws JsonError.ChildNotFoundException {
-        try {
-            return Objects.requireNonNull(this.map.get(key));
-        } catch (NullPointerException e) {
+        int index = this.find(key);
+        if (index < 0) {
             throw new JsonError.ChildNotFoundException(
                     String.format("JsonObject has no such child '%s'",key));
         }
+        return this.values[index];
     }
 
     /**
@@ -147,7 +285,7 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      *         {@link JsonComment} included
      */
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return this.count == 0;
     }
 
     /**
@@ -157,7 +295,7 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      * @return the number of children element of this object
      */
     public int size() {
-        return this.map.size();
+        return this.count;
     }
 
     /**
@@ -171,7 +309,7 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      *         specified key
      */
     public boolean contains(String key) {
-        return this.map.containsKey(key);
+        return this.find(key) >= 0;
     }
 
     // edit
@@ -183,23 +321,20 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      * @param element the value to associate to the new key
      * @return whether a new entry could be created or not. The object is not
      *         altered if {@code false}
+     * @throws NullPointerException if the key is {@code null} while the
+     *         element isn't a comment
      */
     public boolean add(String key, JsonElement element) {
-        JsonNode node = new JsonNode(key, element, this);
         if (key == null && element.isComment()) {
-            this.map.put(UUID.randomUUID().toString(),element);
-            this.commentSet.add((JsonComment) element);
-            this.orderList.add(node);
+            this.append(null, element);
             return true;
         }
-        if (this.map.containsKey(key)) {
+        Objects.requireNonNull(key, "Only comments can be added without key");
+        if (this.find(key) >= 0) {
             return false;
         }
-        this.map.put(key, element);
-        this.nodeSet.add(node);
-        this.orderList.add(node);
+        this.append(key, element);
         for (JsonComment comment : element.getRootComments()) this.add(null, comment);
-        this.modCount++;
         return true;
     }
 
@@ -244,13 +379,17 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
             throw new IllegalArgumentException("Unable to rename from or to a null key");
         if (key.equals(newKey))
             return null;
-        if (!this.map.containsKey(key))
+        int index = this.find(key);
+        if (index < 0)
             throw new JsonError.ChildNotFoundException(String.format("Object has no such child '%s'",key));
-        if (!force && this.map.containsKey(newKey))
+        int old = this.find(newKey);
+        if (!force && old >= 0)
             return new JsonString();
-        JsonElement e = map.remove(newKey);
-        this.orderList.removeIf(node -> (node.key.equals(newKey) && node.value == e));
-        this.map.put(newKey, this.map.remove(key));
+        JsonElement e = old < 0 ? null : this.removeAt(old);
+        // renamed in place, keeping its position
+        this.unindex(key, index);
+        this.keys[index] = newKey;
+        this.index(newKey, index);
         this.modCount++;
         return e;
     }
@@ -268,12 +407,9 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
         if (element.isComment()) {
             throw new UnsupportedOperationException("use #add method to add comments");
         }
-        boolean b = this.map.containsKey(key);
-        JsonNode node = new JsonNode(key, element, this);
-        this.map.put(key, element);
-        this.nodeSet.remove(new JsonNode(key, null, this));
-        this.nodeSet.add(node);
-        if (!b) this.orderList.add(node);
+        int index = this.find(key);
+        if (index < 0) this.append(Objects.requireNonNull(key), element);
+        else this.values[index] = element;
         for (JsonComment comment : element.getRootComments()) this.add(null, comment);
         element.clearRootComment();
         this.modCount++;
@@ -300,8 +436,9 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      */
     private void nodeSetValue(String key, JsonElement value) throws NullPointerException {
         if (value.isComment()) throw new UnsupportedOperationException("Cannot use nodeSetValue with comments");
-        if (!this.contains(key)) throw new NullPointerException("No such entry in the object");
-        this.map.put(key, value);
+        int index = this.find(key);
+        if (index < 0) throw new NullPointerException("No such entry in the object");
+        this.values[index] = value;
     }
 
     /**
@@ -312,23 +449,9 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      *         key, and therefore none to be removed
      */
     public JsonElement remove(String key) throws JsonError.ChildNotFoundException {
-        try {
-            JsonElement j = this.map.remove(key);
-            if (j.isComment()) this.commentSet.removeIf(e -> {
-                try {
-                    return e.getAsString().equals(j.getAsJsonComment().getAsString());
-                } catch (JsonError.JsonElementTypeException ex) {
-                    ex.printStackTrace();
-                    return false;
-                }
-            });
-            else this.nodeSet.remove(new JsonNode(key,j, this));
-            this.orderList.removeIf(node -> node.key.equals(key));
-            this.modCount++;
-            return j;
-        } catch (NullPointerException e) {
-            throw new JsonError.ChildNotFoundException("");
-        }
+        int index = this.find(key);
+        if (index < 0) throw new JsonError.ChildNotFoundException("");
+        return this.removeAt(index);
     }
 
     /**
@@ -339,14 +462,10 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      * @return whether the element could be removed or not
      */
     public boolean remove(String key, JsonElement j) {
-        boolean b = this.map.remove(key, j);
-        if (b) {
-            if (j.isComment()) this.commentSet.removeIf(e -> e.hashCode() == j.hashCode());
-            else this.nodeSet.remove(new JsonNode(key, j, this));
-            this.orderList.removeIf(node -> node.key.equals(key) && node.value == j);
-            this.modCount++;
-        }
-        return b;
+        int index = this.find(key);
+        if (index < 0 || !Objects.equals(this.values[index], j)) return false;
+        this.removeAt(index);
+        return true;
     }
 
     /**
@@ -357,22 +476,10 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      * @return a {@link Collection} of all the {@link JsonElement} removed from the object.
      */
     public Collection<JsonElement> remove(UnaryOperator<JsonElement> operator) {
-        Set<String> remove = new HashSet<>();
         Set<JsonElement> removed = new HashSet<>();
-        for (String key : map.keySet())
-            if ((!map.get(key).isComment()) && operator.apply(map.get(key)) != null) remove.add(key);
-        for (String key : remove) {
-            try {
-                JsonElement e = remove(key);
-                removed.add(e);
-                nodeSet.remove(new JsonNode(key, e, this));
-                if (e.isComment())
-                    commentSet.remove(e);
-                orderList.removeIf(node -> node.key.equals(key));
-                this.modCount++;
-            } catch (JsonError.ChildNotFoundException ignored) {
-                // ignored
-            }
+        for (int i = 0; i < this.end; i++) {
+            JsonElement e = this.values[i];
+            if (e != null && !e.isComment() && operator.apply(e) != null) removed.add(this.removeAt(i));
         }
         return removed;
     }
@@ -385,10 +492,11 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      *      specific removal
      */
     public void clear() {
-        this.map.clear();
-        this.nodeSet.clear();
-        this.commentSet.clear();
-        this.orderList.clear();
+        this.keys = NO_KEYS;
+        this.values = NO_VALUES;
+        this.table = NO_TABLE;
+        this.end = 0;
+        this.count = 0;
         this.modCount++;
     }
 
@@ -421,8 +529,9 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
     public int recursivePush(JsonObject object) {
         AtomicInteger i = new AtomicInteger();
         object.forEach((key, value) -> {
-            if (this.map.containsKey(key) && this.map.get(key).isJsonObject() && value.isJsonObject())
-                i.getAndAdd(((JsonObject)map.get(key)).recursivePush((JsonObject) value));
+            int index = this.find(key);
+            if (index >= 0 && this.values[index].isJsonObject() && value.isJsonObject())
+                i.getAndAdd(((JsonObject) this.values[index]).recursivePush((JsonObject) value));
             else {
                 i.incrementAndGet();
                 this.put(key, value);
@@ -464,8 +573,9 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
     public int recursivePushAll(JsonObject object) {
         AtomicInteger i = new AtomicInteger();
         object.forAll((key, value) -> {
-            if (this.map.containsKey(key) && this.map.get(key).isJsonObject() && value.isJsonObject())
-                i.getAndAdd(((JsonObject)map.get(key)).recursivePush((JsonObject) value));
+            int index = this.find(key);
+            if (index >= 0 && this.values[index].isJsonObject() && value.isJsonObject())
+                i.getAndAdd(((JsonObject) this.values[index]).recursivePush((JsonObject) value));
             else {
                 i.getAndIncrement();
                 if (value.isComment()) {
@@ -497,16 +607,10 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
         JsonObject out = new JsonObject();
         out.pushAll(o1);
         out.push(o2);
-        for (JsonComment c : o2.commentSet) {
-            if (out.commentSet.contains(c)) continue;
-            out.add(null,c);
-        }
+        o2.forAllComments(out::addMissingComment);
         for (JsonObject object : objects) {
             out.push(object);
-            for (JsonComment c : object.commentSet) {
-                if (out.commentSet.contains(c)) continue;
-                out.add(null, c);
-            }
+            object.forAllComments(out::addMissingComment);
         }
         return out;
     }
@@ -530,16 +634,10 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
         JsonObject out = new JsonObject();
         out.recursivePushAll(o1);
         out.recursivePush(o2);
-        for (JsonComment c : o2.commentSet) {
-            if (out.commentSet.contains(c)) continue;
-            out.add(null, c);
-        }
+        o2.forAllComments(out::addMissingComment);
         for (JsonObject object : objects) {
             out.recursivePush(object);
-            for (JsonComment c : object.commentSet) {
-                if (out.commentSet.contains(c)) continue;
-                out.add(null, c);
-            }
+            object.forAllComments(out::addMissingComment);
         }
         return out;
     }
@@ -561,76 +659,94 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
     @Override
     protected String stringify(ParseSet parseSet, String indentation, String indentIncrement, ExplorationStack stack)
             throws JsonError.RecursiveJsonElementException {
+        return this.writeToString(parseSet, indentation, indentIncrement, stack);
+    }
+
+    @Override
+    protected void write(Appendable out, ParseSet parseSet, Indentation indentation, ExplorationStack stack)
+            throws JsonError.RecursiveJsonElementException, IOException {
         Objects.requireNonNull(stack);
         ObjectParseOptions setOptions = (ObjectParseOptions) parseSet.getOptions(this.getClass());
-        if (this.parseOptions.isChanged() || setOptions == null) {
+        if (this.parseOptions.isChanged() && !parseSet.isForced(this.getClass()) || setOptions == null) {
             setOptions = this.parseOptions;
         }
         ObjectParseOptions options = setOptions;
-        if (this.map.isEmpty()) return "{}";
-        if (stack.stack(this.hashCode())) {
+        if (this.count == 0) {
+            out.append("{}");
+            return;
+        }
+        if (stack.stack(this)) {
             if (!options.resolveCircular()) {
                 throw new JsonError.RecursiveJsonElementException("Recursive JSON structure in JsonArray");
             }
-            return this.asRef();
+            if (!this.getId().isPresent()) stack.circularReference(this);
+            out.append(this.asRef());
+            return;
         }
-        StringBuilder builder = new StringBuilder();
         if (this.getId().isPresent() && options.resolveCircular()) {
-            builder.append(this.stringifiedId()).append(" ");
+            out.append(this.stringifiedId()).append(" ");
         }
-        builder.append("{");
+        out.append("{");
         int index = 0;
-        int lastComma = 0;
         int size = this.size();
         boolean endOnComment = false;
-        boolean lineBreakIter = options.useLineBreakAsIterator();
-        boolean nextLineBreak = size > 0;
+        boolean inline = options.isAllInOneLine();
+        boolean lineBreakIter = options.useLineBreakAsIterator() && !inline;
+        boolean nextLineBreak = size > 0 && !inline;
         boolean inlineSingleValue = options.noLineBreakSingle();
-        List<JsonNode> l = options.isOrdered() ? orderList : new ArrayList<>();
-        if (!options.isOrdered()) {
-            this.map.forEach((k, v) -> l.add(new JsonNode(k, v, this)));
+        // entries are always kept in insertion order
+        int lastValue = -1;
+        for (int i = 0, n = 0; i < this.end; i++) {
+            if (this.values[i] == null) continue;
+            if (!this.values[i].isComment()) lastValue = n;
+            n++;
         }
-        for (JsonNode node : l) {
-            String k = node.key;
-            JsonElement e = node.value;
+        Indentation childIndentation = indentation.next();
+        for (int i = 0; i < this.end; i++) {
+            String k = this.keys[i];
+            JsonElement e = this.values[i];
+            if (e == null) continue;
             index++;
             endOnComment = e.isComment();
-            if (inlineSingleValue && size == 1 && !e.isComment()) {
-                builder.append(' ');
+            if (inlineSingleValue && size == 1 && !e.isComment() || inline && !nextLineBreak) {
+                out.append(' ');
             } else if (nextLineBreak) {
-                builder.append('\n').append(indentation).append(indentIncrement);
+                childIndentation.appendTo(out.append('\n'));
             }
             if (!e.isComment()) {
                 char c = options.keyQuoteChar();
-                String s = c == 0 ? "%1$s: " : "%2$c%1$s%2$c: ";
-                builder.append(String.format(s, k, c));
+                if (c == 0) out.append(k);
+                else StringEscaper.write(out, k, c, null);
+                out.append(": ");
             }
-            builder.append(e.stringify(parseSet, String.format("%s%s",indentation,indentIncrement),indentIncrement, stack));
-            nextLineBreak = !e.isComment();
-            if (index < size() && !e.isComment() && !lineBreakIter) {
-                lastComma = builder.length();
-                builder.append(", ");
+            e.write(out, parseSet, childIndentation, stack);
+            // line comments always end their line
+            boolean lineComment = e.isComment() && !((JsonComment) e).writesBlock(parseSet);
+            nextLineBreak = inline ? lineComment : !e.isComment() || lineComment;
+            if (index < size && !e.isComment() && !lineBreakIter) {
+                // no comma past the last value
+                if (index <= lastValue) out.append(',');
+                if (!inline) out.append(' ');
             }
         }
-        if (endOnComment && lastComma != 0) builder.deleteCharAt(lastComma);
-        if (size == 1 && inlineSingleValue && !endOnComment) {
-            builder.append(' ');
+        if (size == 1 && inlineSingleValue && !endOnComment || inline && !nextLineBreak) {
+            out.append(' ');
         } else {
-            builder.append('\n').append(indentation);
+            indentation.appendTo(out.append('\n'));
         }
-        builder.append('}');
-        stack.unstack(this.hashCode());
-        return builder.toString();
+        out.append('}');
+        stack.unstack(this);
     }
 
     @Override
     protected ExplorationStack explore(ExplorationStack stack) {
-        boolean b = stack.add(this);
-        if (b) {
-            this.withId(this.hashCode());
+        if (!stack.add(this)) {
+            // already on the path, thus circular
+            this.withNewId();
+            return stack;
         }
-        for (JsonNode node : this.nodeSet) {
-            node.value.explore(stack);
+        for (int i = 0; i < this.end; i++) {
+            if (this.values[i] != null) this.values[i].explore(stack);
         }
         stack.remove(this);
         return stack;
@@ -644,17 +760,126 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      * @return a set of all non-comment children
      */
     public Set<JsonNode> entrySet() {
-        return new HashSet<>(this.nodeSet);
+        Set<JsonNode> set = new LinkedHashSet<>();
+        for (int i = 0; i < this.end; i++) {
+            if (this.keys[i] != null) set.add(new JsonNode(this.keys[i], this.values[i], this));
+        }
+        return set;
     }
 
     /**
-     * Returns a set of all children of the object.
-     * Comments are here identified by {@link UUID} keys
-     * @return a {@code Map.Entry} set of all children in
-     *         the object.
+     * Returns a set view of all children of the object, in
+     * insertion order.
+     * Comments are here given {@code null} keys.<br>
+     * The set is backed by the object: removing from it, or
+     * setting its entries' values, writes through to the
+     * object. Comment entries only accept comments as new
+     * values, and keyed entries only non-comments.
+     * @return a {@code Map.Entry} set view of all children
+     *         in the object.
      */
     public Set<Map.Entry<String,JsonElement>> allEntriesSet() {
-        return this.map.entrySet();
+        return new AllEntriesSet();
+    }
+
+    private final class AllEntriesSet extends AbstractSet<Map.Entry<String,JsonElement>> {
+        @Override
+        public int size() {
+            return JsonObject.this.count;
+        }
+
+        @Override
+        public void clear() {
+            JsonObject.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<String,JsonElement>> iterator() {
+            return new Iterator<Map.Entry<String,JsonElement>>() {
+                int expectedModCount = modCount;
+                int next = this.skip(0);
+                int last = -1;
+
+                private int skip(int i) {
+                    while (i < end && values[i] == null) i++;
+                    return i;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    checkForComodification();
+                    return this.next < end;
+                }
+
+                @Override
+                public Map.Entry<String,JsonElement> next() {
+                    if (!this.hasNext()) throw new NoSuchElementException();
+                    this.last = this.next;
+                    this.next = this.skip(this.next + 1);
+                    return new IndexedEntry(this.last);
+                }
+
+                @Override
+                public void remove() {
+                    if (this.last < 0) throw new IllegalStateException();
+                    checkForComodification();
+                    // entries are never moved by removals
+                    removeAt(this.last);
+                    this.last = -1;
+                    this.expectedModCount = modCount;
+                }
+
+                private void checkForComodification() {
+                    if (modCount != this.expectedModCount)
+                        throw new ConcurrentModificationException();
+                }
+            };
+        }
+    }
+
+    /**
+     * An entry of the {@link #allEntriesSet()} view, reading
+     * and writing through to its index in the object.
+     */
+    private final class IndexedEntry implements Map.Entry<String,JsonElement> {
+        private final int index;
+
+        private IndexedEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return keys[this.index];
+        }
+
+        @Override
+        public JsonElement getValue() {
+            return values[this.index];
+        }
+
+        @Override
+        public JsonElement setValue(JsonElement value) {
+            JsonElement old = values[this.index];
+            if (old == null) throw new IllegalStateException("Entry removed from the object");
+            if (value.isComment() != (keys[this.index] == null)) {
+                throw new UnsupportedOperationException("Comments can only replace comments");
+            }
+            values[this.index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            return Objects.equals(this.getKey(), e.getKey()) && Objects.equals(this.getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.getKey()) ^ Objects.hashCode(this.getValue());
+        }
     }
 
     /**
@@ -668,7 +893,11 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      */
     public void forEach(BiConsumer<String, ? super JsonElement> action) {
         Objects.requireNonNull(action);
-        this.nodeSet.forEach(node -> action.accept(node.key, node.value));
+        int expectedCount = this.count;
+        for (int i = 0; i < this.end; i++) {
+            if (this.keys[i] != null) action.accept(this.keys[i], this.values[i]);
+            if (this.count != expectedCount) throw new ConcurrentModificationException();
+        }
     }
 
     /**
@@ -682,7 +911,11 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      */
     public void forAll(BiConsumer<String, ? super JsonElement> action) {
         Objects.requireNonNull(action);
-        this.map.forEach(action);
+        int expectedCount = this.count;
+        for (int i = 0; i < this.end; i++) {
+            if (this.values[i] != null) action.accept(this.keys[i], this.values[i]);
+            if (this.count != expectedCount) throw new ConcurrentModificationException();
+        }
     }
 
     /**
@@ -696,7 +929,11 @@ public class JsonObject extends JsonElement implements Iterable<JsonObject.JsonN
      */
     public void forAllComments(Consumer<JsonComment> action) {
         Objects.requireNonNull(action);
-        this.commentSet.forEach(action);
+        int expectedCount = this.count;
+        for (int i = 0; i < this.end; i++) {
+            if (this.keys[i] == null && this.values[i] != null) action.accept((JsonComment) this.values[i]);
+            if (this.count != expectedCount) throw new ConcurrentModificationException();
+        }
     }
 
     //TODO Jdoc
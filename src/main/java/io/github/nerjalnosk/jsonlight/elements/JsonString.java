@@ -3,6 +3,9 @@ package io.github.nerjalnosk.jsonlight.elements;
 import io.github.nerjalnosk.jsonlight.parser.options.ParseSet;
 import io.github.nerjalnosk.jsonlight.parser.options.StringParseOptions;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * <p>An object made to symbolise a String
  * in a JSON Structure.
@@ -16,6 +19,10 @@ import io.github.nerjalnosk.jsonlight.parser.options.StringParseOptions;
  * <p>Default Stringification options means
  * double quiting.
  * </p>
+ * <p>Quotes, backslashes and control chars
+ * are escaped, as well as the chars which
+ * were parsed from escaped unicode codes.
+ * </p>
  * Stringifies as {@code null} if the
  * value is null, just as {@code null}
  * is parsed as a null JsonString with
@@ -147,25 +154,30 @@ public class JsonString extends JsonElement {
         StringParseOptions setOptions = (StringParseOptions) parseSet.getOptions(this.getClass());
         StringParseOptions options = parseOptions.isChanged() ? parseOptions :
                 setOptions == null ? parseOptions : setOptions;
-        char c = options.usesDoubleQuotes() ? '"' : '\'';
-        if (this.parseOptions.hasUnicodedEncoded()) {
-            StringBuilder builder = new StringBuilder();
-            builder.append(c);
-            int i = 0;
-            while (i < this.value.length()) {
-                String sub = this.value.substring(i, i+2);
-                if (this.parseOptions.isCharUnicoded(sub)) {
-                    builder.append("\\u").append(this.parseOptions.unicodedCode(sub));
-                    i++;
-                } else {
-                    builder.append(sub.charAt(0));
-                }
-                i++;
-            }
-            builder.append(c);
-            return builder.toString();
+        StringBuilder builder = new StringBuilder(this.value.length() + 2);
+        try {
+            this.write(builder, options);
+        } catch (IOException e) {
+            // builders never throw
+            throw new UncheckedIOException(e);
         }
-        return  String.format("%c%s%c",c,this.value,c);
+        return builder.toString();
+    }
+
+    @Override
+    protected void write(Appendable out, ParseSet parseSet, Indentation indentation, ExplorationStack stack)
+            throws IOException {
+        if (this.value == null) {
+            out.append("null");
+            return;
+        }
+        StringParseOptions setOptions = (StringParseOptions) parseSet.getOptions(this.getClass());
+        this.write(out, parseOptions.isChanged() ? parseOptions : setOptions == null ? parseOptions : setOptions);
+    }
+
+    private void write(Appendable out, StringParseOptions options) throws IOException {
+        char c = options.usesDoubleQuotes() ? '"' : '\'';
+        StringEscaper.write(out, this.value, c, this.parseOptions);
     }
 
     @Override
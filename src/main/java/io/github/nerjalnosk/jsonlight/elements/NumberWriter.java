@@ -0,0 +1,298 @@
+package io.github.nerjalnosk.jsonlight.elements;
+
+import io.github.nerjalnosk.jsonlight.parser.options.NumberParseOptions;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * <p>Writes {@link JsonNumber} values' text
+ * straight into an output sink, without
+ * intermediate strings.
+ * </p>
+ * <p>Longs are written digit by digit. Doubles
+ * are written with the fewest fraction digits
+ * parsing back to them, found by scaling them
+ * by exact powers of ten, values out of the
+ * tables' reach getting their shortest digits
+ * from {@link DoubleDigits}.<br>
+ * Fraction digits beyond the plan's
+ * decimals are rounded half up.
+ * </p>
+ * @author nerjal
+ */
+final class NumberWriter {
+    private static final long[] LONG_POWERS = {
+            1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+            10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+            1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L
+    };
+    private static final double[] DOUBLE_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17
+    };
+    // doubles hold all integers below it exactly
+    private static final double MAX_EXACT = 9007199254740992d;
+
+    private NumberWriter() {}
+
+    /**
+     * Writes the specified long.
+     * @param out the sink to write to
+     * @param l the value to write
+     * @param options the number's stringification
+     *                plan
+     * @throws IOException if the sink cannot be
+     *         written to
+     */
+    static void writeLong(Appendable out, long l, NumberParseOptions.Plan options) throws IOException {
+        if (options.usesScientific()) {
+            char[] digits = new char[19];
+            int length = digits(l, digits);
+            int last = length;
+            while (last > 1 && digits[last - 1] == '0') last--;
+            writeScientific(out, l < 0, digits, last, length, 0, options);
+            return;
+        }
+        appendLong(out, l);
+        if (options.isFloating()) out.append(".0");
+    }
+
+    /**
+     * Writes the specified double, non-finite
+     * values as their JSON5 literals.
+     * @param out the sink to write to
+     * @param d the value to write
+     * @param options the number's stringification
+     *                plan
+     * @throws IOException if the sink cannot be
+     *         written to
+     */
+    static void writeDouble(Appendable out, double d, NumberParseOptions.Plan options) throws IOException {
+        if (Double.isNaN(d)) {
+            out.append("NaN");
+            return;
+        }
+        if (Double.isInfinite(d)) {
+            out.append(d > 0 ? "Infinity" : "-Infinity");
+            return;
+        }
+        double abs = Math.abs(d);
+        if (!options.usesScientific()) {
+            if (abs < MAX_EXACT && d == (long) d) {
+                writeLong(out, (long) d, options);
+                return;
+            }
+            int max = Math.min(options.getDecimals(), DOUBLE_POWERS.length - 1);
+            for (int k = 1; k <= max; k++) {
+                double scaled = abs * DOUBLE_POWERS[k];
+                if (scaled >= MAX_EXACT) break;
+                long m = Math.round(scaled);
+                // both exact, thus correctly rounded
+                if (m / DOUBLE_POWERS[k] == abs) {
+                    if (d < 0) out.append('-');
+                    writeScaled(out, m, k);
+                    return;
+                }
+            }
+        }
+        char[] digits = new char[DoubleDigits.MAX_DIGITS];
+        long decimal = DoubleDigits.toDigits(abs, digits);
+        int length = (int) decimal;
+        int point = (int) (decimal >> 32);
+        if (options.usesScientific()) writeScientific(out, d < 0, digits, length, point, length - point, options);
+        else writePlain(out, d < 0, digits, length, point, options);
+    }
+
+    /**
+     * Writes the specified decimal, keeping its
+     * scale within the plan's decimals.
+     * @param out the sink to write to
+     * @param value the value to write
+     * @param options the number's stringification
+     *                plan
+     * @throws IOException if the sink cannot be
+     *         written to
+     */
+    static void writeDecimal(Appendable out, BigDecimal value, NumberParseOptions.Plan options) throws IOException {
+        if (options.usesScientific()) {
+            char[] digits = value.unscaledValue().abs().toString().toCharArray();
+            int last = digits.length;
+            while (last > 1 && digits[last - 1] == '0') last--;
+            int point = digits.length - value.scale();
+            writeScientific(out, value.signum() < 0, digits, last, point, value.scale(), options);
+            return;
+        }
+        boolean integral = value.signum() == 0 || value.stripTrailingZeros().scale() <= 0;
+        if (integral && !options.isFloating()) {
+            out.append(value.toPlainString());
+            return;
+        }
+        if (value.scale() > options.getDecimals()) {
+            // no trailing zeros but the value's own
+            value = value.setScale(options.getDecimals(), RoundingMode.HALF_UP).stripTrailingZeros();
+        }
+        out.append(value.toPlainString());
+        if (value.scale() <= 0 && options.isFloating()) out.append(".0");
+    }
+
+    /**
+     * Appends the specified long's digits, from
+     * the most significant one.
+     */
+    private static void appendLong(Appendable out, long l) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(l);
+            return;
+        }
+        if (l == Long.MIN_VALUE) {
+            out.append("-9223372036854775808");
+            return;
+        }
+        if (l < 0) {
+            out.append('-');
+            l = -l;
+        }
+        int k = 1;
+        while (k < LONG_POWERS.length && LONG_POWERS[k] <= l) k++;
+        for (int j = k - 1; j >= 0; j--) {
+            out.append((char) ('0' + l / LONG_POWERS[j]));
+            l %= LONG_POWERS[j];
+        }
+    }
+
+    /**
+     * Fills the specified array with the long's
+     * digits, sign excluded.
+     * @return the number of digits
+     */
+    private static int digits(long l, char[] digits) {
+        int length = 0;
+        // negative, not to overflow on the minimum value
+        long n = l < 0 ? l : -l;
+        do {
+            digits[length++] = (char) ('0' - n % 10);
+            n /= 10;
+        } while (n != 0);
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            char c = digits[i];
+            digits[i] = digits[j];
+            digits[j] = c;
+        }
+        return length;
+    }
+
+    private static void append(Appendable out, char[] chars, int from, int to) throws IOException {
+        if (out instanceof StringBuilder) ((StringBuilder) out).append(chars, from, to - from);
+        else for (int i = from; i < to; i++) out.append(chars[i]);
+    }
+
+    /**
+     * Writes the specified scaled value, as
+     * {@code m / 10^k}.
+     */
+    private static void writeScaled(Appendable out, long m, int k) throws IOException {
+        long fraction = m % LONG_POWERS[k];
+        appendLong(out, m / LONG_POWERS[k]);
+        out.append('.');
+        for (int j = k - 1; j > 0 && fraction < LONG_POWERS[j]; j--) out.append('0');
+        appendLong(out, fraction);
+    }
+
+    /**
+     * Writes the specified significant digits
+     * in plain notation, rounding them half up
+     * to the plan's decimals.
+     * @param digits the significant digits, which
+     *               may be overwritten
+     * @param length the number of digits
+     * @param point the decimal point's position
+     *              from the first digit
+     */
+    private static void writePlain(Appendable out, boolean negative, char[] digits, int length, int point,
+                                   NumberParseOptions.Plan options) throws IOException {
+        int decimals = Math.max(options.getDecimals(), 0);
+        char[] chars = digits;
+        if (point < 0) {
+            // lead with the zeros up to the decimal point
+            chars = new char[length - point];
+            Arrays.fill(chars, 0, -point, '0');
+            System.arraycopy(digits, 0, chars, -point, length);
+            length -= point;
+            point = 0;
+        }
+        if (decimals < length - point) {
+            boolean up = chars[point + decimals] >= '5';
+            length = point + decimals;
+            for (int i = length - 1; up && i >= 0; i--) {
+                up = chars[i] == '9';
+                chars[i] = up ? '0' : (char) (chars[i] + 1);
+            }
+            if (up) {
+                char[] carried = new char[length + 1];
+                carried[0] = '1';
+                System.arraycopy(chars, 0, carried, 1, length);
+                chars = carried;
+                length++;
+                point++;
+            }
+        }
+        int fractionEnd = length;
+        while (fractionEnd > point && chars[fractionEnd - 1] == '0') fractionEnd--;
+        boolean hasFraction = fractionEnd > point;
+        boolean hasInteger = false;
+        for (int i = 0; i < Math.min(point, length) && !hasInteger; i++) hasInteger = chars[i] != '0';
+        if (negative && (hasInteger || hasFraction)) out.append('-');
+        if (!hasInteger) out.append('0');
+        else {
+            append(out, chars, 0, Math.min(point, length));
+            for (int i = length; i < point; i++) out.append('0');
+        }
+        if (hasFraction) {
+            out.append('.');
+            append(out, chars, point, fractionEnd);
+        } else if (options.isFloating()) out.append(".0");
+    }
+
+    /**
+     * Writes the specified significant digits
+     * in scientific notation, rounding them
+     * half up to at most the number's scale or
+     * the plan's decimals.
+     * @param chars the significant digits, which
+     *              may be overwritten
+     * @param length the number of digits
+     * @param point the decimal point's position
+     *              from the first digit
+     * @param scale the number's scale
+     */
+    private static void writeScientific(Appendable out, boolean negative, char[] chars, int length, int point,
+                                        int scale, NumberParseOptions.Plan options) throws IOException {
+        int exponent = point - 1;
+        int maxFraction = Math.max(Math.max(scale, options.getDecimals()), 0);
+        if (length - 1 > maxFraction) {
+            boolean up = chars[maxFraction + 1] >= '5';
+            length = maxFraction + 1;
+            for (int i = length - 1; up && i >= 0; i--) {
+                up = chars[i] == '9';
+                chars[i] = up ? '0' : (char) (chars[i] + 1);
+            }
+            if (up) {
+                chars[0] = '1';
+                exponent++;
+            }
+            while (length > 1 && chars[length - 1] == '0') length--;
+        }
+        if (chars[0] == '0') exponent = 0;
+        if (negative && (length > 1 || chars[0] != '0')) out.append('-');
+        out.append(chars[0]);
+        if (length > 1) {
+            out.append('.');
+            append(out, chars, 1, length);
+        } else if (options.isFloating()) out.append(".0");
+        out.append('E');
+        appendLong(out, exponent);
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.nerjalnosk.jsonlight.elements;
+
+import io.github.nerjalnosk.jsonlight.parser.options.StringParseOptions;
+
+import java.io.IOException;
+
+/**
+ * <p>Writes quoted and escaped strings' text
+ * straight into an output sink.
+ * </p>
+ * <p>ASCII chars are looked up in a 128-entry
+ * escape table, runs of chars needing no
+ * escaping being appended at once.<br>
+ * Quotes, backslashes and control chars are
+ * escaped, along with the chars the string's
+ * options remember as parsed from an escaped
+ * unicode code.
+ * </p>
+ * @author nerjal
+ */
+final class StringEscaper {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    // escaping char per ASCII char, 'u' for unicode codes, 0 if not escaped
+    private static final char[] DOUBLE_QUOTED = table('"');
+    private static final char[] SINGLE_QUOTED = table('\'');
+
+    private StringEscaper() {}
+
+    private static char[] table(char quote) {
+        char[] table = new char[128];
+        for (int c = 0; c < 0x20; c++) table[c] = 'u';
+        table['\b'] = 'b';
+        table['\f'] = 'f';
+        table['\n'] = 'n';
+        table['\r'] = 'r';
+        table['\t'] = 't';
+        table['\\'] = '\\';
+        table[quote] = quote;
+        return table;
+    }
+
+    /**
+     * Writes the specified string, quoted and
+     * escaped.
+     * @param out the sink to write to
+     * @param s the string to write
+     * @param quote the quoting char
+     * @param options the options remembering the
+     *                string's escaped unicode
+     *                codes, or {@code null}
+     * @throws IOException if the sink cannot be
+     *         written to
+     */
+    static void write(Appendable out, String s, char quote, StringParseOptions options) throws IOException {
+        char[] table = quote == '\'' ? SINGLE_QUOTED : DOUBLE_QUOTED;
+        boolean unicoded = options != null && options.hasUnicodedEncoded();
+        int length = s.length();
+        int run = 0;
+        out.append(quote);
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            char escape = c < 128 ? table[c] : 0;
+            if (escape == 0) {
+                if (!unicoded || options.unicodedCode(c) < 0) continue;
+                escape = 'u';
+            }
+            out.append(s, run, i).append('\\').append(escape);
+            if (escape == 'u') {
+                out.append(HEX[c >>> 12]).append(HEX[c >>> 8 & 0xF]).append(HEX[c >>> 4 & 0xF]).append(HEX[c & 0xF]);
+            }
+            run = i + 1;
+        }
+        out.append(s, run, length).append(quote);
+    }
+}
@@ -19,10 +19,22 @@ public class ArrayState extends AbstractState {
     private boolean requiresIterator = false;
     private boolean trailingIterator = false;
     private int trailingIndex = 0;
-    private final JsonArray array = new JsonArray();
+    private final JsonArray array;
 
     public ArrayState(StringParser stringParser, ParserState olderState) {
+        this(stringParser, olderState, new JsonArray());
+    }
+
+    /**
+     * Instantiates a state filling the
+     * specified array.
+     * @param stringParser the state's parser
+     * @param olderState the parent state
+     * @param array the array to fill
+     */
+    ArrayState(StringParser stringParser, ParserState olderState, JsonArray array) {
         super(stringParser, olderState);
+        this.array = array;
     }
 
     private void trailingError() {
@@ -171,6 +183,8 @@ public class ArrayState extends AbstractState {
     @Override
     public void addSubElement(JsonElement element) {
         this.array.add(element);
+        // comments may stand between values and iterators alike
+        if (element.isComment()) return;
         this.lookForValue = false;
         this.foundLineBreak = false;
         this.requiresIterator = true;
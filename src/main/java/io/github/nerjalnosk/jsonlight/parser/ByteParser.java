@@ -0,0 +1,427 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.JsonParser;
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A parser to get a JSON5 structure from
+ * raw UTF-8 bytes, either held in a
+ * {@link ByteBuffer} or read from an
+ * {@link InputStream}.
+ * </p>
+ * <p>Bytes are scanned as they are, thus
+ * without any prior decoding pass, since
+ * all structural characters, numbers and
+ * whitespaces are ASCII. Only multibyte
+ * sequences, which may only be found in
+ * strings and comments, are decoded upon
+ * being read.
+ * </p>
+ * <p>Streams are read by blocks into a
+ * reusable window, which only keeps the
+ * bytes of the state being parsed.
+ * </p>
+ * Cursor indexes are byte offsets.
+ * @see JsonParser
+ * @author nerjal
+ */
+public class ByteParser extends StringParser {
+    /**
+     * Default number of bytes read from
+     * streams at once.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    private final InputStream stream;
+    /**
+     * The source's bytes window. Its index
+     * {@code 0} matches the source's
+     * {@link #bufferOffset} byte.
+     */
+    protected ByteBuffer buffer;
+    /**
+     * The source's byte index of the window's
+     * first byte.
+     */
+    protected int bufferOffset = 0;
+    /**
+     * The number of available bytes in the
+     * window.
+     */
+    protected int filled;
+    private int mark = 0;
+    private boolean reachEnd;
+
+    /**
+     * Instantiates a parser for the specified
+     * bytes, with default parsing options.
+     * @param bytes the UTF-8 bytes to be parsed
+     */
+    public ByteParser(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes), new ParserOptions.Builder().json5().classic().build());
+    }
+
+    /**
+     * Instantiates a parser for the specified
+     * bytes.
+     * @param bytes the UTF-8 bytes to be parsed
+     * @param options the parsing options
+     */
+    public ByteParser(byte[] bytes, ParserOptions options) {
+        this(ByteBuffer.wrap(bytes), options);
+    }
+
+    /**
+     * Instantiates a parser for the specified
+     * buffer's remaining bytes. The buffer's
+     * position is not affected.
+     * @param buffer the UTF-8 bytes to be parsed
+     * @param options the parsing options
+     */
+    public ByteParser(ByteBuffer buffer, ParserOptions options) {
+        super(options);
+        this.stream = null;
+        this.buffer = buffer.slice();
+        this.filled = this.buffer.limit();
+        this.reachEnd = true;
+        super.state = new EmptyState(this);
+    }
+
+    /**
+     * Instantiates a parser for the specified
+     * stream, with default parsing options.
+     * @param stream the UTF-8 stream to be
+     *               parsed
+     */
+    public ByteParser(InputStream stream) {
+        this(stream, new ParserOptions.Builder().json5().classic().build(), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Instantiates a parser reading the
+     * specified stream by blocks of the
+     * specified size.
+     * @param stream the UTF-8 stream to be
+     *               parsed
+     * @param options the parsing options
+     * @param bufferSize the number of bytes to
+     *                   be read from the
+     *                   stream at once
+     * @throws IllegalArgumentException if the
+     *         buffer size is not strictly
+     *         positive
+     */
+    public ByteParser(InputStream stream, ParserOptions options, int bufferSize) {
+        super(options);
+        if (bufferSize < 1) throw new IllegalArgumentException("buffer size must be strictly positive");
+        this.stream = stream;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.filled = 0;
+        this.reachEnd = false;
+        super.state = new EmptyState(this);
+    }
+
+    /**
+     * Instantiates a parser without source,
+     * for subclasses to provide their own
+     * windows by overriding {@link #fill(int)}.
+     * @param options the parsing options
+     */
+    protected ByteParser(ParserOptions options) {
+        super(options);
+        this.stream = null;
+        this.buffer = ByteBuffer.allocate(0);
+        this.filled = 0;
+        this.reachEnd = false;
+        super.state = new EmptyState(this);
+    }
+
+    /**
+     * Returns the source's byte index of the
+     * opening char of the state being parsed.
+     * Bytes from this index on must be kept
+     * available.
+     * @return the current state's opening
+     *         index
+     */
+    protected final int getMark() {
+        return this.mark;
+    }
+
+    /**
+     * Moves the parser's cursor, mark and window
+     * back of the specified offset, for
+     * subclasses to keep indexes within bounds
+     * over sources larger than
+     * {@link Integer#MAX_VALUE} bytes.
+     * @param delta the offset to remove from
+     *              the parser's indexes
+     */
+    protected final void rebase(int delta) {
+        super.rebaseIndex(delta);
+        this.mark -= delta;
+        this.bufferOffset -= delta;
+    }
+
+    /**
+     * Makes the specified byte index available
+     * in the window, reading more of the source
+     * if needed.
+     * @param i the source's byte index to be
+     *          made available
+     * @return whether the byte at the specified
+     *         index is available, {@code false}
+     *         meaning the source's end has been
+     *         reached.
+     */
+    protected boolean fill(int i) {
+        while (i >= this.bufferOffset + this.filled) {
+            if (this.reachEnd) return false;
+            if (this.filled == this.buffer.capacity()) this.compact();
+            try {
+                int n = this.stream.read(this.buffer.array(), this.filled, this.buffer.capacity() - this.filled);
+                if (n < 0) this.close();
+                else this.filled += n;
+            } catch (IOException e) {
+                this.close();
+                if (this.run) this.error(new JsonParseException(e));
+                return false;
+            }
+        }
+        return i >= this.bufferOffset;
+    }
+
+    /**
+     * Frees space in the stream window by
+     * dropping the bytes preceding the current
+     * state, or grows it if there is none to
+     * drop.
+     */
+    private void compact() {
+        // keep one byte before the state's opening for #getPrecedent
+        int drop = this.mark - 1 - this.bufferOffset;
+        byte[] bytes = this.buffer.array();
+        if (drop > 0) {
+            System.arraycopy(bytes, drop, bytes, 0, this.filled - drop);
+            this.filled -= drop;
+            this.bufferOffset += drop;
+        } else {
+            this.buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length * 2));
+        }
+    }
+
+    private void close() {
+        this.reachEnd = true;
+        try {
+            this.stream.close();
+        } catch (IOException e) {
+            Arrays.stream(e.getStackTrace()).forEach(this::log);
+        }
+    }
+
+    /**
+     * Returns the byte at the specified source
+     * index, or {@code -1} if out of the source.
+     */
+    private int byteAt(int i) {
+        if (!this.fill(i)) return -1;
+        return this.buffer.get(i - this.bufferOffset) & 0xFF;
+    }
+
+    /**
+     * Returns the length of the UTF-8 sequence
+     * starting with the specified byte, or
+     * {@code 0} if it cannot start one.
+     */
+    private static int sequenceLength(int b) {
+        if (b < 0x80) return 1;
+        if ((b & 0xE0) == 0xC0) return 2;
+        if ((b & 0xF0) == 0xE0) return 3;
+        if ((b & 0xF8) == 0xF0) return 4;
+        return 0;
+    }
+
+    /**
+     * Decodes the codepoint of the UTF-8 sequence
+     * at the specified index, or {@code -1} if
+     * the sequence is malformed.
+     */
+    private int decode(int i, int length) {
+        int b = this.byteAt(i);
+        int cp = b & (0xFF >> (length + 1));
+        for (int k = 1; k < length; k++) {
+            int c = this.byteAt(i + k);
+            if ((c & 0xC0) != 0x80) return -1;
+            cp = (cp << 6) | (c & 0x3F);
+        }
+        return cp;
+    }
+
+    /**
+     * Returns the char at the specified source
+     * index. Multibyte sequences' leading bytes
+     * are decoded, their trailing bytes being
+     * returned as {@code U+FFFD}.
+     */
+    private char charAt(int i) {
+        int b = this.byteAt(i);
+        if (b < 0) return Character.MIN_VALUE;
+        int length = sequenceLength(b);
+        if (length == 1) return (char) b;
+        if (length == 0) return '\uFFFD';
+        int cp = this.decode(i, length);
+        if (cp < 0) return '\uFFFD';
+        return cp < Character.MIN_SUPPLEMENTARY_CODE_POINT ? (char) cp : Character.highSurrogate(cp);
+    }
+
+    @Override
+    public void setParseString(String s) {
+    }
+
+    @Override
+    public JsonElement parse() throws JsonParseException {
+        this.read();
+        return this.getElem();
+    }
+
+    /**
+     * Static method that instantiates a new
+     * parser with the specified bytes and
+     * runs it directly, only returning the
+     * parsing output.
+     * @param bytes the UTF-8 bytes to be parsed
+     * @return the {@link JsonElement}
+     *         corresponding to the specified
+     *         bytes
+     * @throws JsonParseException if any
+     *         exception is raised while
+     *         trying to parse the bytes
+     */
+    public static JsonElement parse(byte[] bytes) throws JsonParseException {
+        return new ByteParser(bytes).parse();
+    }
+
+    /**
+     * Static method that instantiates a new
+     * parser with the specified stream and
+     * runs it directly, only returning the
+     * parsing output. The stream is closed
+     * once fully read.
+     * @param stream the UTF-8 stream to be
+     *               parsed
+     * @return the {@link JsonElement}
+     *         corresponding to the specified
+     *         stream
+     * @throws JsonParseException if any
+     *         exception is raised while
+     *         trying to read or parse the
+     *         stream
+     */
+    public static JsonElement parse(InputStream stream) throws JsonParseException {
+        return new ByteParser(stream).parse();
+    }
+
+    @Override
+    public void read() throws JsonParseException, NullPointerException {
+        this.run = true;
+        // skip UTF-8 byte order mark
+        if (this.getIndex() == 0 && this.byteAt(0) == 0xEF && this.byteAt(1) == 0xBB && this.byteAt(2) == 0xBF) {
+            super.forward(3);
+        }
+        while (!this.stop) {
+            if (this.isErrored) throw this.storedErr;
+            int i = this.getIndex();
+            int b = this.byteAt(i);
+            if (b < 0) {
+                if (this.isErrored) throw this.storedErr;
+                while (!this.state.isFinal()) {
+                    this.state.read(Character.MIN_VALUE);
+                    if (this.isErrored) throw this.storedErr;
+                }
+                break;
+            }
+            if (b < 0x80) {
+                this.state.read((char) b);
+            } else {
+                this.readSequence(i, b);
+            }
+            super.incrementIndexes();
+        }
+        this.stop = true;
+        this.run = false;
+    }
+
+    /**
+     * Decodes the multibyte sequence at the
+     * specified index and feeds it to the
+     * current state, leaving the cursor on the
+     * sequence's last byte.
+     */
+    private void readSequence(int i, int b) {
+        int length = sequenceLength(b);
+        int cp = length < 2 ? -1 : this.decode(i, length);
+        if (cp < 0) {
+            this.error("malformed UTF-8 sequence");
+            return;
+        }
+        if (cp < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            this.state.read((char) cp);
+        } else {
+            this.state.read(Character.highSurrogate(cp));
+            if (!this.isErrored) this.state.read(Character.lowSurrogate(cp));
+        }
+        super.forward(length - 1);
+    }
+
+    @Override
+    public void switchState(ParserState parserState) {
+        super.switchState(parserState);
+        this.mark = this.getIndex();
+    }
+
+    @Override
+    public char getNext() {
+        return this.charAt(this.getIndex() + 1);
+    }
+
+    @Override
+    public char[] getNext(int length) {
+        int from = this.getIndex() + 1;
+        this.fill(from + length - 1);
+        int to = Math.min(from + length, this.bufferOffset + this.filled);
+        if (to <= from) return new char[0];
+        char[] chars = new char[to - from];
+        for (int k = 0; k < chars.length; k++) chars[k] = this.charAt(from + k);
+        return chars;
+    }
+
+    @Override
+    public char getActual() {
+        return this.charAt(this.getIndex());
+    }
+
+    @Override
+    public char getPrecedent() {
+        int i = this.getIndex() - 1;
+        return i < this.bufferOffset ? 0 : this.charAt(i);
+    }
+
+    @Override
+    public char[] getPrecedents(int i) {
+        int from = this.getIndex() - i;
+        char[] chars = new char[i];
+        for (int k = 0; k < i; k++) chars[k] = this.charAt(from + k);
+        return chars;
+    }
+
+    @Override
+    public String getParserDataKey() {
+        return "bytes";
+    }
+}
@@ -117,6 +117,16 @@ public class EmptyState extends AbstractState {
         }
     }
 
+    /**
+     * Returns whether the state holds
+     * its root element yet.
+     * @return whether the root element
+     *         has been found
+     */
+    boolean hasElement() {
+        return this.element != null;
+    }
+
     @Override
     public JsonElement getElem() {
         if (this.element == null) return null;
@@ -21,64 +21,120 @@ import static io.github.nerjalnosk.jsonlight.JsonError.*;
  * {@link #parse(File)} to directly parse
  * a file to the corresponding element.
  * </p>
+ * <p>The source is read by blocks into a
+ * reusable window, which only keeps the
+ * characters of the state being parsed.
+ * Said window is only compacted when it
+ * needs to be refilled, and only grows
+ * if a single state spans over more than
+ * its whole size.
+ * </p>
  * @see JsonParser
  * @since JDK 16
  * @author nerjal
  */
 public class FileParser extends StringParser {
-    private final InputStreamReader reader;
+    /**
+     * Default number of characters read
+     * from the source at once.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    private final Reader reader;
+    private char[] buffer;
+    private int bufferOffset = 0;
+    private int filled = 0;
+    private int mark = 0;
     private boolean reachFileEnd;
-    private int readIndex = 0;
-    private int stateLength;
-    private char act;
-    private final StringBuilder str = new StringBuilder();
 
     public FileParser(File f) throws FileNotFoundException {
-        reader = new FileReader(f);
-        super.state = new EmptyState(this);
+        this(new FileReader(f), new ParserOptions.Builder().json5().classic().build(), DEFAULT_BUFFER_SIZE);
     }
 
     public FileParser(File f, ParserOptions options) throws FileNotFoundException {
-        super(options);
-        reader = new FileReader(f);
-        super.state = new EmptyState(this);
+        this(new FileReader(f), options, DEFAULT_BUFFER_SIZE);
     }
 
     public FileParser(InputStreamReader stream) {
-        reader = stream;
-        super.state = new EmptyState(this);
+        this(stream, new ParserOptions.Builder().json5().classic().build(), DEFAULT_BUFFER_SIZE);
     }
 
     public FileParser(InputStreamReader stream, ParserOptions options) {
+        this(stream, options, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Instantiates a parser reading the
+     * specified source by blocks of the
+     * specified size.
+     * @param reader the source to be parsed
+     * @param options the parsing options
+     * @param bufferSize the number of chars
+     *                   to be read from the
+     *                   source at once
+     * @throws IllegalArgumentException if the
+     *         buffer size is not strictly
+     *         positive
+     */
+    public FileParser(Reader reader, ParserOptions options, int bufferSize) {
         super(options);
-        reader = stream;
+        if (bufferSize < 1) throw new IllegalArgumentException("buffer size must be strictly positive");
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
         super.state = new EmptyState(this);
     }
 
     /**
-     * Reads the file's content until
-     * reaching the actual parsing
-     * index.
+     * Reads the source's content until
+     * the specified index is available
+     * in the buffer, or the source's
+     * end is reached.
+     * @param i the absolute index to be
+     *          made available
+     * @return whether the char at the
+     *         specified index is
+     *         available
      */
-    private void readFileToIndex() {
-        try {
-            while (readIndex >= str.length()-1 && !reachFileEnd) {
-                char c = (char)reader.read();
-                if (c == '\uFFFF') reachFileEnd = true;
-                else str.append(c);
-            }
-            act = str.charAt(readIndex);
-        } catch (IOException|IndexOutOfBoundsException e) {
-            Arrays.stream(e.getStackTrace()).forEach(this::log);
-            reachFileEnd = true;
-        }
-        if (reachFileEnd) {
+    private boolean fill(int i) {
+        while (i >= this.bufferOffset + this.filled) {
+            if (this.reachFileEnd) return false;
+            if (this.filled == this.buffer.length) this.compact();
             try {
-                reader.close();
+                int n = this.reader.read(this.buffer, this.filled, this.buffer.length - this.filled);
+                if (n < 0) this.close();
+                else this.filled += n;
             } catch (IOException e) {
-                Arrays.stream(e.getStackTrace()).forEach(this::log);
+                this.close();
+                if (this.run) this.error(new JsonParseException(e));
+                return false;
             }
         }
+        return i >= this.bufferOffset;
+    }
+
+    /**
+     * Frees space in the buffer by dropping
+     * the chars preceding the current state,
+     * or grows it if there is none to drop.
+     */
+    private void compact() {
+        // keep one char before the state's opening for #getPrecedent
+        int drop = this.mark - 1 - this.bufferOffset;
+        if (drop > 0) {
+            System.arraycopy(this.buffer, drop, this.buffer, 0, this.filled - drop);
+            this.filled -= drop;
+            this.bufferOffset += drop;
+        } else {
+            this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+        }
+    }
+
+    private void close() {
+        this.reachFileEnd = true;
+        try {
+            this.reader.close();
+        } catch (IOException e) {
+            Arrays.stream(e.getStackTrace()).forEach(this::log);
+        }
     }
 
     @Override
@@ -146,17 +202,17 @@ public class FileParser extends StringParser {
     public void read() throws JsonParseException, NullPointerException {
         this.run = true;
         while (!this.stop) {
-            if (isErrored) throw this.storedErr;
-            readFileToIndex();
-            if (stop || reachFileEnd || act == '\uFFFF') {
+            if (this.isErrored) throw this.storedErr;
+            int i = this.getIndex();
+            if (!this.fill(i)) {
+                if (this.isErrored) throw this.storedErr;
                 while (!this.state.isFinal()) {
                     this.state.read(Character.MIN_VALUE);
+                    if (this.isErrored) throw this.storedErr;
                 }
                 break;
             }
-            state.read(act);
-            stateLength++;
-            readIndex++;
+            this.state.read(this.buffer[i - this.bufferOffset]);
             super.incrementIndexes();
         }
         this.stop = true;
@@ -165,57 +221,41 @@ public class FileParser extends StringParser {
 
     @Override
     public void switchState(ParserState parserState) {
-        str.replace(0, stateLength, "");
-        readIndex = 0;
-        stateLength = 0;
         super.switchState(parserState);
-    }
-
-    @Override
-    public void forward() {
-        readIndex++;
-        stateLength++;
-        readFileToIndex();
-        super.forward();
-    }
-
-    @Override
-    public void forward(int i) {
-        readIndex += i;
-        stateLength += i;
-        readFileToIndex();
-        super.forward(i);
+        this.mark = this.getIndex();
     }
 
     @Override
     public char getNext() {
-        readIndex++;
-        readFileToIndex();
-        readIndex--;
-        return str.charAt(readIndex+1);
+        int i = this.getIndex() + 1;
+        return this.fill(i) ? this.buffer[i - this.bufferOffset] : Character.MIN_VALUE;
     }
 
     @Override
     public char[] getNext(int length) {
-        readIndex+=length;
-        readFileToIndex();
-        readIndex-=length;
-        return str.substring(readIndex+1, readIndex+1+length).toCharArray();
+        int from = this.getIndex() + 1;
+        this.fill(from + length - 1);
+        int to = Math.min(from + length, this.bufferOffset + this.filled);
+        if (to <= from) return new char[0];
+        return Arrays.copyOfRange(this.buffer, from - this.bufferOffset, to - this.bufferOffset);
     }
 
     @Override
     public char getActual() {
-        return act;
+        int i = this.getIndex();
+        return this.fill(i) ? this.buffer[i - this.bufferOffset] : Character.MIN_VALUE;
     }
 
     @Override
     public char getPrecedent() {
-        return str.charAt(readIndex-1);
+        int i = this.getIndex() - 1;
+        return i < this.bufferOffset ? 0 : this.buffer[i - this.bufferOffset];
     }
 
     @Override
     public char[] getPrecedents(int i) {
-        return str.substring(readIndex-i, readIndex).toCharArray();
+        int to = this.getIndex();
+        return Arrays.copyOfRange(this.buffer, to - i - this.bufferOffset, to - this.bufferOffset);
     }
 
     // error
@@ -0,0 +1,393 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A non-blocking parser, accepting its source
+ * by chunks of any size as they are received,
+ * and returning root elements as soon as they
+ * are complete.
+ * </p>
+ * <p>Chunks may be split anywhere, including
+ * within strings, numbers, comments or IDs.
+ * Byte chunks are decoded as UTF-8, multibyte
+ * sequences being allowed to be split across
+ * chunks as well.<br>
+ * The parsing states are kept across chunks,
+ * each chunk being read as far as it goes, so
+ * that only the chars of the state being parsed
+ * are held. The last few chars of a chunk may
+ * however be held until the next one, if their
+ * reading requires to look ahead, e.g. for
+ * literals, escapes or unquoted keys.
+ * </p>
+ * <p>Multiple root elements may follow each other,
+ * each one being returned on its own. Comments
+ * preceding a root element are passed on to it
+ * as root comments, and IDs are local to their
+ * root element.<br>
+ * Once a parsing error is raised, the parser
+ * needs to be reset before being fed again.
+ * </p>
+ * <blockquote><pre>
+ * IncrementalParser parser = new IncrementalParser();
+ * while (channel.read(buffer) != -1) {
+ *     buffer.flip();
+ *     parser.feed(buffer).forEach(this::handle);
+ *     buffer.compact();
+ * }
+ * parser.endOfInput().forEach(this::handle);
+ * </pre></blockquote>
+ * @author nerjal
+ */
+public class IncrementalParser {
+    /**
+     * Number of chars a state may look ahead
+     * of the one it reads, e.g. when reading
+     * {@code -Infinity}.
+     */
+    private static final int LOOKAHEAD = 7;
+    private final ParserOptions options;
+    private ChunkParser parser;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private final CharBuffer decoded = CharBuffer.allocate(4096);
+    private ByteBuffer carry = null;
+
+    public IncrementalParser() {
+        this(new ParserOptions.Builder().json5().classic().build());
+    }
+
+    public IncrementalParser(ParserOptions options) {
+        this.options = options;
+        this.parser = new ChunkParser(options);
+    }
+
+    /**
+     * Feeds the specified chars to the parser.
+     * @param chunk the next chars of the source
+     * @return the root elements completed by
+     *         the chunk, if any
+     * @throws JsonParseException if a completed
+     *         root element cannot be parsed
+     */
+    public List<JsonElement> feed(char[] chunk) throws JsonParseException {
+        return this.feed(chunk, 0, chunk.length);
+    }
+
+    /**
+     * Feeds the specified range of chars to the
+     * parser.
+     * @param chunk the chars array
+     * @param offset the range's first index
+     * @param length the range's length
+     * @return the root elements completed by
+     *         the chunk, if any
+     * @throws JsonParseException if a completed
+     *         root element cannot be parsed
+     */
+    public List<JsonElement> feed(char[] chunk, int offset, int length) throws JsonParseException {
+        List<JsonElement> out = new ArrayList<>();
+        this.parser.append(chunk, offset, length);
+        this.parser.read(out, false);
+        return out;
+    }
+
+    /**
+     * Feeds the specified UTF-8 bytes to the
+     * parser, consuming the buffer's remaining
+     * bytes. Incomplete trailing multibyte
+     * sequences are kept until the next chunk.
+     * @param chunk the next bytes of the source
+     * @return the root elements completed by
+     *         the chunk, if any
+     * @throws JsonParseException if the bytes
+     *         are not valid UTF-8, or a
+     *         completed root element cannot
+     *         be parsed
+     */
+    public List<JsonElement> feed(ByteBuffer chunk) throws JsonParseException {
+        ByteBuffer in = chunk;
+        if (this.carry != null) {
+            in = ByteBuffer.allocate(this.carry.remaining() + chunk.remaining());
+            in.put(this.carry).put(chunk).flip();
+            this.carry = null;
+        }
+        List<JsonElement> out = new ArrayList<>();
+        CoderResult result;
+        do {
+            result = this.decoder.decode(in, this.decoded, false);
+            this.flushDecoded(out);
+            if (result.isError()) throw new JsonParseException("Error parsing bytes to json element: malformed UTF-8 input");
+        } while (result.isOverflow());
+        if (in.hasRemaining()) {
+            this.carry = ByteBuffer.allocate(in.remaining());
+            this.carry.put(in).flip();
+        }
+        return out;
+    }
+
+    /**
+     * Notifies the parser that the whole source
+     * has been fed, completing the last root
+     * element if needed, and resets the parser
+     * for a new source.
+     * @return the root elements completed by the
+     *         source's end, if any
+     * @throws JsonParseException if the source's
+     *         end is unexpected, or the last
+     *         root element cannot be parsed
+     */
+    public List<JsonElement> endOfInput() throws JsonParseException {
+        try {
+            if (this.carry != null) throw new JsonParseException("Error parsing bytes to json element: truncated UTF-8 input");
+            List<JsonElement> out = new ArrayList<>();
+            CoderResult result = this.decoder.decode(ByteBuffer.allocate(0), this.decoded, true);
+            if (result.isError()) throw new JsonParseException("Error parsing bytes to json element: malformed UTF-8 input");
+            this.decoder.flush(this.decoded);
+            this.flushDecoded(out);
+            this.parser.read(out, true);
+            return out.isEmpty() ? Collections.emptyList() : out;
+        } finally {
+            this.reset();
+        }
+    }
+
+    /**
+     * Discards all pending input.
+     */
+    public void reset() {
+        this.parser = new ChunkParser(this.options);
+        this.decoder.reset();
+        this.decoded.clear();
+        this.carry = null;
+    }
+
+    private void flushDecoded(List<JsonElement> out) throws JsonParseException {
+        this.decoded.flip();
+        this.parser.append(this.decoded.array(), 0, this.decoded.limit());
+        this.decoded.clear();
+        this.parser.read(out, false);
+    }
+
+    private static boolean isKeyChar(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_';
+    }
+
+    /**
+     * The parser kept alive across chunks.<br>
+     * Reads a window holding the chars fed yet
+     * to be read, and those of the state being
+     * parsed, like {@link FileParser}'s one,
+     * only growing if a single state spans over
+     * more than its whole size.
+     */
+    private static final class ChunkParser extends StringParser {
+        private char[] buffer = new char[1024];
+        private int bufferOffset = 0;
+        private int filled = 0;
+        private int mark = 0;
+        private int keyEnd = -1;
+
+        private ChunkParser(ParserOptions options) {
+            super(options);
+            super.state = new EmptyState(this);
+        }
+
+        /**
+         * Appends the specified chars to the
+         * window.
+         * @param chars the chars array
+         * @param offset the range's first index
+         * @param length the range's length
+         */
+        private void append(char[] chars, int offset, int length) {
+            if (this.filled + length > this.buffer.length) this.compact(length);
+            System.arraycopy(chars, offset, this.buffer, this.filled, length);
+            this.filled += length;
+        }
+
+        /**
+         * Frees space in the window by dropping
+         * the chars preceding the current state,
+         * and grows it if that is not enough.
+         * @param length the number of chars to
+         *               make room for
+         */
+        private void compact(int length) {
+            // keep one char before the state's opening for #getPrecedent
+            int drop = this.mark - 1 - this.bufferOffset;
+            if (drop > 0) {
+                System.arraycopy(this.buffer, drop, this.buffer, 0, this.filled - drop);
+                this.filled -= drop;
+                this.bufferOffset += drop;
+            }
+            if (this.filled + length > this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length * 2, this.filled + length));
+            }
+        }
+
+        /**
+         * Reads the window's chars as far as
+         * possible, adding the completed root
+         * elements to the specified list.
+         * @param out the list to add completed
+         *            root elements to
+         * @param end whether the source's end
+         *            has been reached
+         * @throws JsonParseException if a
+         *         parsing error is raised
+         */
+        private void read(List<JsonElement> out, boolean end) throws JsonParseException {
+            if (this.isErrored) throw this.storedErr;
+            this.run = true;
+            try {
+                int i;
+                while ((i = this.getIndex()) < this.bufferOffset + this.filled) {
+                    char c = this.buffer[i - this.bufferOffset];
+                    if (!end && !this.isReadable(c, i)) break;
+                    this.state.read(c);
+                    super.incrementIndexes();
+                    if (this.isErrored) throw this.storedErr;
+                    this.emit(out);
+                }
+                if (end) {
+                    while (!this.state.isFinal()) {
+                        this.state.read(Character.MIN_VALUE);
+                        if (this.isErrored) throw this.storedErr;
+                    }
+                    this.emit(out);
+                }
+            } finally {
+                this.run = false;
+            }
+        }
+
+        /**
+         * Returns whether the specified char can
+         * be read already, that is whether all
+         * the chars its reading may look ahead
+         * at have been fed.
+         * @param c the char to be read
+         * @param i the char's absolute index
+         * @return whether the char can be read
+         */
+        private boolean isReadable(char c, int i) {
+            // unquoted keys are read whole at once
+            if (this.state instanceof ObjectState && isKeyChar(c)) return this.keyEnds(i);
+            switch (c) {
+                case '{':
+                case '}':
+                case '[':
+                case ']':
+                case ',':
+                case ':':
+                case '"':
+                case '\'':
+                case ' ':
+                case '\n':
+                case '\t':
+                case '\r':
+                case '\f':
+                    return true;
+                default:
+                    return (c >= '0' && c <= '9') || i + LOOKAHEAD < this.bufferOffset + this.filled;
+            }
+        }
+
+        /**
+         * Returns whether the run of key chars
+         * starting at the specified index ends
+         * within the window.
+         * @param i the run's absolute index
+         * @return whether the run's end has
+         *         been fed
+         */
+        private boolean keyEnds(int i) {
+            if (this.keyEnd > i) return true;
+            for (int j = i + 1; j < this.bufferOffset + this.filled; j++) {
+                if (!isKeyChar(this.buffer[j - this.bufferOffset])) {
+                    this.keyEnd = j;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Passes on the root element to the
+         * specified list if it is complete, and
+         * starts over for the next one.
+         * @param out the list to add the root
+         *            element to
+         */
+        private void emit(List<JsonElement> out) {
+            if (!(this.state instanceof EmptyState) || !((EmptyState) this.state).hasElement()) return;
+            out.add(this.state.getElem());
+            this.state = new EmptyState(this);
+            this.clearIds();
+            // indexes restart from the window, staying bounded whatever the source's length
+            this.rebaseIndex(this.bufferOffset);
+            this.mark -= this.bufferOffset;
+            this.bufferOffset = 0;
+            this.keyEnd = -1;
+        }
+
+        @Override
+        public void switchState(ParserState parserState) {
+            super.switchState(parserState);
+            this.mark = this.getIndex();
+        }
+
+        @Override
+        public char getNext() {
+            int i = this.getIndex() + 1;
+            return i < this.bufferOffset + this.filled ? this.buffer[i - this.bufferOffset] : Character.MIN_VALUE;
+        }
+
+        @Override
+        public char[] getNext(int length) {
+            int from = this.getIndex() + 1;
+            int to = Math.min(from + length, this.bufferOffset + this.filled);
+            if (to <= from) return new char[0];
+            return Arrays.copyOfRange(this.buffer, from - this.bufferOffset, to - this.bufferOffset);
+        }
+
+        @Override
+        public char getActual() {
+            int i = this.getIndex();
+            return i < this.bufferOffset + this.filled ? this.buffer[i - this.bufferOffset] : Character.MIN_VALUE;
+        }
+
+        @Override
+        public char getPrecedent() {
+            int i = this.getIndex() - 1;
+            return i < this.bufferOffset ? 0 : this.buffer[i - this.bufferOffset];
+        }
+
+        @Override
+        public char[] getPrecedents(int i) {
+            int to = this.getIndex();
+            return Arrays.copyOfRange(this.buffer, to - i - this.bufferOffset, to - this.bufferOffset);
+        }
+
+        @Override
+        public String getParserDataKey() {
+            return "stream";
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.elements.JsonArray;
+import io.github.nerjalnosk.jsonlight.elements.JsonBoolean;
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+import io.github.nerjalnosk.jsonlight.elements.JsonNumber;
+import io.github.nerjalnosk.jsonlight.elements.JsonObject;
+import io.github.nerjalnosk.jsonlight.elements.JsonString;
+import io.github.nerjalnosk.jsonlight.parser.options.NumberParseOptions;
+import io.github.nerjalnosk.jsonlight.parser.options.ObjectParseOptions;
+import io.github.nerjalnosk.jsonlight.parser.options.StringParseOptions;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A two-stage parser for UTF-8 bytes, in the
+ * manner of simdjson.
+ * </p>
+ * <p>The first stage builds a
+ * {@link StructuralIndex} of the source's
+ * structural characters, scanning it by 8-byte
+ * words. The second stage then walks these
+ * positions only, building elements without
+ * dispatching every single char through the
+ * parser's states.
+ * </p>
+ * <p>Only plain JSON is handled this way. Sources
+ * using any other feature, such as comments,
+ * IDs, unquoted keys, trailing commas or
+ * unicode escapes, as well as invalid sources,
+ * are parsed by the {@link ByteParser} instead,
+ * which also raises the parsing errors.
+ * </p>
+ * @author nerjal
+ */
+public class IndexedParser extends ByteParser {
+    private static final int MAX_DEPTH = 1024;
+    private static final Unsupported UNSUPPORTED = new Unsupported();
+    private final byte[] bytes;
+    private final int length;
+    private StructuralIndex index;
+    private int cursor;
+    private int end;
+    private int depth;
+    private CharsetDecoder decoder;
+
+    /**
+     * Instantiates a parser for the specified
+     * bytes, with default parsing options.
+     * @param bytes the UTF-8 bytes to be parsed
+     */
+    public IndexedParser(byte[] bytes) {
+        this(bytes, new ParserOptions.Builder().json5().classic().build());
+    }
+
+    /**
+     * Instantiates a parser for the specified
+     * bytes.
+     * @param bytes the UTF-8 bytes to be parsed
+     * @param options the parsing options
+     */
+    public IndexedParser(byte[] bytes, ParserOptions options) {
+        super(bytes, options);
+        this.bytes = bytes;
+        this.length = bytes.length;
+    }
+
+    /**
+     * Signals a source the second stage does
+     * not handle.
+     */
+    private static final class Unsupported extends Exception {
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    @Override
+    public JsonElement parse() throws JsonParseException {
+        this.index = StructuralIndex.build(this.bytes, 0, this.length);
+        if (this.index != null) {
+            try {
+                return this.root();
+            } catch (Unsupported e) {
+                // left to the state parser
+            } finally {
+                this.index = null;
+            }
+        }
+        return super.parse();
+    }
+
+    /**
+     * Static method that instantiates a new
+     * parser with the specified bytes and
+     * runs it directly, only returning the
+     * parsing output.
+     * @param bytes the UTF-8 bytes to be parsed
+     * @return the {@link JsonElement}
+     *         corresponding to the specified
+     *         bytes
+     * @throws JsonParseException if any
+     *         exception is raised while
+     *         trying to parse the bytes
+     */
+    public static JsonElement parse(byte[] bytes) throws JsonParseException {
+        return new IndexedParser(bytes).parse();
+    }
+
+    private JsonElement root() throws Unsupported {
+        int start = 0;
+        if (this.length >= 3 && this.bytes[0] == (byte) 0xEF && this.bytes[1] == (byte) 0xBB && this.bytes[2] == (byte) 0xBF)
+            start = 3;
+        if (this.index.size() < 2) throw UNSUPPORTED;
+        int first = this.index.get(0);
+        byte b = this.bytes[first];
+        if (b != '{' && b != '[') throw UNSUPPORTED;
+        this.whitespaces(start, first);
+        this.cursor = 0;
+        this.depth = 0;
+        JsonElement element = this.value(start);
+        if (this.cursor != this.index.size()) throw UNSUPPORTED;
+        this.whitespaces(this.end, this.length);
+        return element;
+    }
+
+    /**
+     * Reads the value starting after the
+     * specified byte index, setting
+     * {@link #end} past it.
+     */
+    private JsonElement value(int from) throws Unsupported {
+        if (this.cursor >= this.index.size()) throw UNSUPPORTED;
+        int at = this.index.get(this.cursor);
+        int start = this.skipWhitespaces(from, at);
+        if (start < at) {
+            // scalar, delimited by the next structural char
+            int stop = at;
+            while (isWhitespace(this.bytes[stop - 1])) stop--;
+            this.end = stop;
+            return this.scalar(start, stop);
+        }
+        switch (this.bytes[at]) {
+            case '{':
+                return this.object(at);
+            case '[':
+                return this.array(at);
+            case '"':
+                return new JsonString(this.string(false), new StringParseOptions(StringParseOptions.QuoteFormat.DOUBLE_QUOTES)
+                        .withUnicoded(new HashMap<>()));
+            default:
+                throw UNSUPPORTED;
+        }
+    }
+
+    private JsonObject object(int at) throws Unsupported {
+        if (++this.depth > MAX_DEPTH) throw UNSUPPORTED;
+        this.cursor++;
+        JsonObject object = new JsonObject(new ObjectParseOptions(true));
+        int from = at + 1;
+        if (this.closes(from, '}')) {
+            this.cursor++;
+        } else {
+            while (true) {
+                if (this.next(from) != '"') throw UNSUPPORTED;
+                String key = this.string(true);
+                if (this.next(this.end) != ':') throw UNSUPPORTED;
+                from = this.index.get(this.cursor++) + 1;
+                if (!object.add(key, this.value(from))) throw UNSUPPORTED;
+                byte b = this.next(this.end);
+                from = this.index.get(this.cursor++) + 1;
+                if (b == '}') break;
+                if (b != ',') throw UNSUPPORTED;
+            }
+        }
+        this.end = this.index.get(this.cursor - 1) + 1;
+        this.depth--;
+        return object;
+    }
+
+    private JsonArray array(int at) throws Unsupported {
+        if (++this.depth > MAX_DEPTH) throw UNSUPPORTED;
+        this.cursor++;
+        JsonArray array = new JsonArray();
+        int from = at + 1;
+        if (this.closes(from, ']')) {
+            this.cursor++;
+        } else {
+            while (true) {
+                array.add(this.value(from));
+                byte b = this.next(this.end);
+                from = this.index.get(this.cursor++) + 1;
+                if (b == ']') break;
+                if (b != ',') throw UNSUPPORTED;
+            }
+        }
+        this.end = this.index.get(this.cursor - 1) + 1;
+        this.depth--;
+        return array;
+    }
+
+    /**
+     * Returns whether the next structural char is
+     * the specified closing one, only preceded by
+     * whitespaces from the specified byte index.
+     */
+    private boolean closes(int from, char c) {
+        if (this.cursor >= this.index.size()) return false;
+        int at = this.index.get(this.cursor);
+        return this.bytes[at] == c && this.skipWhitespaces(from, at) == at;
+    }
+
+    /**
+     * Returns the next structural char, checking
+     * that only whitespaces precede it from the
+     * specified byte index.
+     */
+    private byte next(int from) throws Unsupported {
+        if (this.cursor >= this.index.size()) throw UNSUPPORTED;
+        int at = this.index.get(this.cursor);
+        this.whitespaces(from, at);
+        return this.bytes[at];
+    }
+
+    /**
+     * Reads the string whose opening quote is
+     * the current position, canonicalizing it
+     * if it is an object key.
+     */
+    private String string(boolean key) throws Unsupported {
+        if (this.cursor + 1 >= this.index.size()) throw UNSUPPORTED;
+        int from = this.index.get(this.cursor) + 1;
+        int to = this.index.get(this.cursor + 1);
+        this.cursor += 2;
+        this.end = to + 1;
+        boolean plain = true;
+        for (int i = from; i < to; i++) {
+            byte b = this.bytes[i];
+            if (b == '\n' || b == 0) throw UNSUPPORTED;
+            if (b < 0 || b == '\\') plain = false;
+        }
+        if (plain) {
+            return key ? this.getKeyCache().intern(this.bytes, from, to) :
+                    new String(this.bytes, from, to - from, StandardCharsets.ISO_8859_1);
+        }
+        String s;
+        try {
+            if (this.decoder == null) {
+                this.decoder = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT);
+            }
+            s = this.decoder.decode(ByteBuffer.wrap(this.bytes, from, to - from)).toString();
+        } catch (CharacterCodingException e) {
+            throw UNSUPPORTED;
+        }
+        if (s.indexOf('\\') >= 0) s = unescape(s);
+        return key ? this.internKey(s) : s;
+    }
+
+    /**
+     * Unescapes the specified string the same
+     * way the {@link StringState} does.
+     */
+    private static String unescape(String s) throws Unsupported {
+        StringBuilder builder = new StringBuilder(s.length());
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            c = s.charAt(++i);
+            switch (c) {
+                case '\\':
+                    builder.append('\\');
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case '"':
+                case '\'':
+                case '/':
+                    builder.append(c);
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 's':
+                    builder.append(' ');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    throw UNSUPPORTED;
+                default:
+                    builder.append('\\').append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private JsonElement scalar(int from, int to) throws Unsupported {
+        int length = to - from;
+        if (matches(from, length, "true")) return new JsonBoolean(true);
+        if (matches(from, length, "false")) return new JsonBoolean(false);
+        if (matches(from, length, "null")) return new JsonString();
+
+        // -?digits(.digits)?([eE][+-]?digits)?
+        int i = from;
+        boolean negative = this.bytes[i] == '-';
+        if (negative) i++;
+        long significand = 0;
+        int significant = 0;
+        int fractionDigits = 0;
+        int exponent = 0;
+        boolean decimal = false;
+        boolean scientific = false;
+        int start = i;
+        for (; i < to && isDigit(this.bytes[i]); i++) {
+            int digit = this.bytes[i] - '0';
+            if (significant > 0 || digit != 0) significant++;
+            if (significant <= NumberState.MAX_LONG_DIGITS) significand = significand * 10 + digit;
+        }
+        if (i == start) throw UNSUPPORTED;
+        if (i < to && this.bytes[i] == '.') {
+            decimal = true;
+            start = ++i;
+            for (; i < to && isDigit(this.bytes[i]); i++) {
+                int digit = this.bytes[i] - '0';
+                if (significant > 0 || digit != 0) significant++;
+                if (significant <= NumberState.MAX_LONG_DIGITS) significand = significand * 10 + digit;
+                fractionDigits++;
+            }
+            if (i == start) throw UNSUPPORTED;
+        }
+        if (i < to && (this.bytes[i] == 'e' || this.bytes[i] == 'E')) {
+            scientific = true;
+            boolean negativeExponent = false;
+            if (++i < to && (this.bytes[i] == '+' || this.bytes[i] == '-')) negativeExponent = this.bytes[i++] == '-';
+            start = i;
+            for (; i < to && isDigit(this.bytes[i]); i++) {
+                if (exponent < 100000) exponent = exponent * 10 + (this.bytes[i] - '0');
+            }
+            if (i == start) throw UNSUPPORTED;
+            if (negativeExponent) exponent = -exponent;
+        }
+        if (i != to) throw UNSUPPORTED;
+
+        NumberParseOptions options = new NumberParseOptions();
+        if (scientific) options.setFormat(NumberParseOptions.NumberFormat.SCIENTIFIC);
+        boolean floating = decimal || scientific;
+        if (!floating || !this.options.exactDecimal) {
+            JsonNumber number = NumberState.fastNumber(negative, significand, significant, exponent - fractionDigits,
+                    floating, options);
+            if (number != null) return number;
+        }
+        String s = new String(this.bytes, from, length, StandardCharsets.ISO_8859_1);
+        if (scientific) return new JsonNumber(new BigDecimal(s), options);
+        else if (decimal) return JsonNumber.fromFloatString(s, options);
+        else return JsonNumber.fromIntegerString(s, options);
+    }
+
+    private boolean matches(int from, int length, String literal) {
+        if (length != literal.length()) return false;
+        for (int i = 0; i < length; i++) {
+            if (this.bytes[from + i] != literal.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private void whitespaces(int from, int to) throws Unsupported {
+        if (this.skipWhitespaces(from, to) != to) throw UNSUPPORTED;
+    }
+
+    private int skipWhitespaces(int from, int to) {
+        int i = from;
+        while (i < to && isWhitespace(this.bytes[i])) i++;
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.JsonError;
+
+/**
+ * <p>Callback interface for the events emitted
+ * by a {@link JsonEventParser} while scanning a
+ * JSON5 source.
+ * </p>
+ * <p>All events default to doing nothing, so
+ * that implementations only need to override
+ * those they care about.<br>
+ * Any exception thrown by a handler method
+ * stops the parsing and is passed to the
+ * parser's caller.
+ * </p>
+ * @author nerjal
+ */
+public interface JsonEventHandler {
+    /**
+     * Called before any other event.
+     */
+    default void startDocument() throws JsonError.JsonParseException {}
+
+    /**
+     * Called once the whole source has been
+     * scanned.
+     */
+    default void endDocument() throws JsonError.JsonParseException {}
+
+    default void startObject() throws JsonError.JsonParseException {}
+
+    default void endObject() throws JsonError.JsonParseException {}
+
+    default void startArray() throws JsonError.JsonParseException {}
+
+    default void endArray() throws JsonError.JsonParseException {}
+
+    /**
+     * Called for an object key, right before
+     * the events of its value.
+     * @param key the object key
+     */
+    default void key(String key) throws JsonError.JsonParseException {}
+
+    default void value(String value) throws JsonError.JsonParseException {}
+
+    /**
+     * Called for a number value.
+     * @param value the number, either a
+     *              {@link Long}, a
+     *              {@link java.math.BigInteger},
+     *              a {@link java.math.BigDecimal}
+     *              or a {@link Double} for
+     *              {@code NaN} and
+     *              {@code Infinity}
+     * @see JsonReader#nextNumber()
+     */
+    default void value(Number value) throws JsonError.JsonParseException {}
+
+    default void value(boolean value) throws JsonError.JsonParseException {}
+
+    default void nullValue() throws JsonError.JsonParseException {}
+
+    /**
+     * Called for a comment, wherever it is
+     * found.
+     * @param comment the comment's content
+     * @param block whether it is a block
+     *              comment
+     */
+    default void comment(String comment, boolean block) throws JsonError.JsonParseException {}
+
+    /**
+     * Called for a circular ID declaration,
+     * right before the events of the value
+     * it is declared for.
+     * @param id the declared ID
+     */
+    default void idDeclared(int id) throws JsonError.JsonParseException {}
+
+    /**
+     * Called for a circular ID reference,
+     * standing for a value.
+     * @param id the referenced ID
+     */
+    default void idReference(int id) throws JsonError.JsonParseException {}
+}
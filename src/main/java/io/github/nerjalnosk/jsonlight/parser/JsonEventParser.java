@@ -0,0 +1,119 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import java.io.Reader;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A push parser, scanning a JSON5 source
+ * and emitting events to a
+ * {@link JsonEventHandler} as it goes,
+ * without building any
+ * {@link io.github.nerjalnosk.jsonlight.elements.JsonElement}.
+ * </p>
+ * <p>Parsing follows the same rules and
+ * options as the {@link JsonReader} it is
+ * built upon.
+ * </p>
+ * @see JsonEventHandler
+ * @author nerjal
+ */
+public class JsonEventParser {
+    private final JsonReader reader;
+
+    public JsonEventParser(String s) {
+        this(new JsonReader(s));
+    }
+
+    public JsonEventParser(Reader in) {
+        this(new JsonReader(in));
+    }
+
+    public JsonEventParser(Reader in, ParserOptions options) {
+        this(new JsonReader(in, options));
+    }
+
+    private JsonEventParser(JsonReader reader) {
+        this.reader = reader;
+        this.reader.setReportComments(true);
+    }
+
+    /**
+     * Static method that instantiates a new
+     * parser with the specified string and
+     * runs it directly with the specified
+     * handler.
+     * @param s the string to be parsed
+     * @param handler the handler to emit
+     *                events to
+     * @throws JsonParseException if the string
+     *         cannot be parsed, or the handler
+     *         raised an exception
+     */
+    public static void parse(String s, JsonEventHandler handler) throws JsonParseException {
+        new JsonEventParser(s).parse(handler);
+    }
+
+    /**
+     * Scans the whole source, emitting the
+     * corresponding events to the specified
+     * handler.
+     * @param handler the handler to emit events
+     *                to
+     * @throws JsonParseException if the source
+     *         cannot be read or parsed, or the
+     *         handler raised an exception
+     */
+    public void parse(JsonEventHandler handler) throws JsonParseException {
+        handler.startDocument();
+        while (true) {
+            switch (this.reader.peek()) {
+                case BEGIN_OBJECT:
+                    this.reader.beginObject();
+                    handler.startObject();
+                    break;
+                case END_OBJECT:
+                    this.reader.endObject();
+                    handler.endObject();
+                    break;
+                case BEGIN_ARRAY:
+                    this.reader.beginArray();
+                    handler.startArray();
+                    break;
+                case END_ARRAY:
+                    this.reader.endArray();
+                    handler.endArray();
+                    break;
+                case NAME:
+                    handler.key(this.reader.nextName());
+                    break;
+                case STRING:
+                    handler.value(this.reader.nextString());
+                    break;
+                case NUMBER:
+                    handler.value(this.reader.nextNumber());
+                    break;
+                case BOOLEAN:
+                    handler.value(this.reader.nextBoolean());
+                    break;
+                case NULL:
+                    this.reader.nextNull();
+                    handler.nullValue();
+                    break;
+                case COMMENT:
+                    String comment = this.reader.nextComment();
+                    handler.comment(comment, this.reader.isBlockComment());
+                    break;
+                case ID_DECLARATION:
+                    handler.idDeclared(this.reader.nextIdDeclaration());
+                    break;
+                case ID_REFERENCE:
+                    handler.idReference(this.reader.nextIdReference());
+                    break;
+                case END_DOCUMENT:
+                    handler.endDocument();
+                    return;
+            }
+        }
+    }
+}
@@ -0,0 +1,1012 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.JsonParser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A pull-based reader for JSON5 sources,
+ * reading them token by token without
+ * building any {@link io.github.nerjalnosk.jsonlight.elements.JsonElement}
+ * structure, thus allowing to process
+ * sources of any size in constant memory.
+ * </p>
+ * <p>The reader follows the same lexing rules
+ * as the {@link StringParser} states, and
+ * the same {@link ParserOptions}: comments,
+ * single-quoted strings, unquoted keys,
+ * hexadecimal numbers, {@code NaN} and
+ * {@code Infinity}, and circular structures'
+ * ID declarations and references.
+ * </p>
+ * <blockquote><pre>
+ * JsonReader reader = new JsonReader(source);
+ * reader.beginObject();
+ * while (reader.hasNext()) {
+ *     String key = reader.nextName();
+ *     if (key.equals("count")) count = reader.nextLong();
+ *     else reader.skipValue();
+ * }
+ * reader.endObject();
+ * </pre></blockquote>
+ * Comments are skipped unless the reader is
+ * set to report them, in which case they are
+ * read as {@link JsonToken#COMMENT} tokens
+ * wherever they are found.
+ * @see JsonToken
+ * @author nerjal
+ */
+public class JsonReader implements Closeable {
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int ARRAY_AFTER_COMMA = 4;
+    private static final int EMPTY_OBJECT = 5;
+    private static final int DANGLING_NAME = 6;
+    private static final int OBJECT_AFTER_COLON = 7;
+    private static final int NONEMPTY_OBJECT = 8;
+    private static final int OBJECT_AFTER_COMMA = 9;
+    private static final int CLOSED = 10;
+
+    private final Reader in;
+    private final ParserOptions options;
+    private boolean reportComments = false;
+    private char[] buffer = new char[1024];
+    private int pos = 0;
+    private int limit = 0;
+    private long bufferStart = 0;
+    private long lineStart = 0;
+    private int line = 1;
+    private boolean lineBreak = false;
+    private int[] stack = new int[32];
+    private int stackSize = 1;
+    private JsonToken peeked = null;
+    private String peekedText = null;
+    private char quote;
+    private boolean blockComment;
+    private String text = null;
+
+    public JsonReader(String s) {
+        this(new StringReader(s));
+    }
+
+    public JsonReader(Reader in) {
+        this(in, new ParserOptions.Builder().json5().classic().build());
+    }
+
+    public JsonReader(Reader in, ParserOptions options) {
+        this.in = in;
+        this.options = options;
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Sets whether comments are to be read
+     * as {@link JsonToken#COMMENT} tokens
+     * rather than being skipped.
+     * @param reportComments whether to report
+     *                       comments
+     */
+    public void setReportComments(boolean reportComments) {
+        this.reportComments = reportComments;
+    }
+
+    /**
+     * Returns whether comments are read as
+     * {@link JsonToken#COMMENT} tokens.
+     * @return whether comments are reported
+     */
+    public boolean isReportingComments() {
+        return this.reportComments;
+    }
+
+    /**
+     * Returns the reader's current cursor line.
+     * @return the reader's current cursor line.
+     */
+    public final int getLine() {
+        return this.line;
+    }
+
+    /**
+     * Returns the reader's current cursor
+     * position in the current line.
+     * @return the reader's current cursor
+     *         position in the current line.
+     */
+    public final int getLineIndex() {
+        return (int) (this.bufferStart + this.pos - this.lineStart);
+    }
+
+    /**
+     * Returns the type of the next token,
+     * without consuming it.
+     * @return the type of the next token
+     * @throws JsonParseException if the
+     *         source cannot be read, or
+     *         is malformed
+     */
+    public JsonToken peek() throws JsonParseException {
+        if (this.peeked == null) this.peeked = this.doPeek();
+        return this.peeked;
+    }
+
+    /**
+     * Consumes the next token, whichever its
+     * type, and returns said type.
+     * The token's text is then available
+     * with {@link #getText()}.
+     * @return the type of the consumed token
+     * @throws JsonParseException if the
+     *         source cannot be read, or
+     *         is malformed
+     */
+    public JsonToken nextToken() throws JsonParseException {
+        JsonToken token = this.peek();
+        switch (token) {
+            case BEGIN_OBJECT:
+                this.beginObject();
+                break;
+            case END_OBJECT:
+                this.endObject();
+                break;
+            case BEGIN_ARRAY:
+                this.beginArray();
+                break;
+            case END_ARRAY:
+                this.endArray();
+                break;
+            case NAME:
+                this.nextName();
+                break;
+            case STRING:
+                this.nextString();
+                break;
+            case END_DOCUMENT:
+                this.text = null;
+                break;
+            default:
+                this.take();
+        }
+        return token;
+    }
+
+    /**
+     * Returns the text of the last consumed
+     * token: the name, string or comment
+     * content, the number literal, the
+     * boolean or null literal, or the ID.
+     * Structural tokens have no text.
+     * @return the text of the last consumed
+     *         token
+     */
+    public String getText() {
+        return this.text;
+    }
+
+    /**
+     * Returns whether there is a next element
+     * in the current object or array, or a
+     * root element in the document.
+     * @return whether there is a next element
+     * @throws JsonParseException if the
+     *         source cannot be read, or
+     *         is malformed
+     */
+    public boolean hasNext() throws JsonParseException {
+        JsonToken token = this.peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+    }
+
+    public void beginObject() throws JsonParseException {
+        this.expect(JsonToken.BEGIN_OBJECT);
+        this.take();
+        this.push(EMPTY_OBJECT);
+    }
+
+    public void endObject() throws JsonParseException {
+        this.expect(JsonToken.END_OBJECT);
+        this.take();
+        this.stackSize--;
+    }
+
+    public void beginArray() throws JsonParseException {
+        this.expect(JsonToken.BEGIN_ARRAY);
+        this.take();
+        this.push(EMPTY_ARRAY);
+    }
+
+    public void endArray() throws JsonParseException {
+        this.expect(JsonToken.END_ARRAY);
+        this.take();
+        this.stackSize--;
+    }
+
+    /**
+     * Consumes the next token as an object key.
+     * @return the object key
+     * @throws JsonParseException if the next
+     *         token is not a key, or the
+     *         source is malformed
+     */
+    public String nextName() throws JsonParseException {
+        this.expect(JsonToken.NAME);
+        if (this.peekedText == null) this.peekedText = this.readString(true);
+        return this.take();
+    }
+
+    /**
+     * Consumes the next token as a string.
+     * @return the string's content
+     * @throws JsonParseException if the next
+     *         token is not a string, or the
+     *         source is malformed
+     */
+    public String nextString() throws JsonParseException {
+        this.expect(JsonToken.STRING);
+        this.peekedText = this.readString(true);
+        return this.take();
+    }
+
+    public boolean nextBoolean() throws JsonParseException {
+        this.expect(JsonToken.BOOLEAN);
+        return this.take().equals("true");
+    }
+
+    public void nextNull() throws JsonParseException {
+        this.expect(JsonToken.NULL);
+        this.take();
+    }
+
+    /**
+     * Consumes the next token as a comment.
+     * @return the comment's content
+     * @throws JsonParseException if the next
+     *         token is not a comment, or the
+     *         source is malformed
+     * @see #isBlockComment()
+     */
+    public String nextComment() throws JsonParseException {
+        this.expect(JsonToken.COMMENT);
+        return this.take();
+    }
+
+    /**
+     * Returns whether the last peeked or
+     * consumed comment is a block comment.
+     * @return whether the last comment is a
+     *         block comment
+     */
+    public boolean isBlockComment() {
+        return this.blockComment;
+    }
+
+    /**
+     * Consumes the next token as a circular ID
+     * declaration ({@code <@id>}), which is to
+     * be followed by the value it declares.
+     * @return the declared ID
+     * @throws JsonParseException if the next
+     *         token is not an ID declaration,
+     *         or the source is malformed
+     */
+    public int nextIdDeclaration() throws JsonParseException {
+        this.expect(JsonToken.ID_DECLARATION);
+        return this.parseId(this.take());
+    }
+
+    /**
+     * Consumes the next token as a circular ID
+     * reference ({@code <#id>}).
+     * @return the referenced ID
+     * @throws JsonParseException if the next
+     *         token is not an ID reference, or
+     *         the source is malformed
+     */
+    public int nextIdReference() throws JsonParseException {
+        this.expect(JsonToken.ID_REFERENCE);
+        return this.parseId(this.take());
+    }
+
+    public long nextLong() throws JsonParseException {
+        this.expect(JsonToken.NUMBER);
+        String s = this.take();
+        try {
+            return parseLong(s);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw this.syntaxError(String.format("number %s cannot be read as a long", s));
+        }
+    }
+
+    public int nextInt() throws JsonParseException {
+        this.expect(JsonToken.NUMBER);
+        String s = this.take();
+        try {
+            long l = parseLong(s);
+            if ((int) l == l) return (int) l;
+        } catch (NumberFormatException | ArithmeticException e) {
+            // fall through
+        }
+        throw this.syntaxError(String.format("number %s cannot be read as an int", s));
+    }
+
+    public double nextDouble() throws JsonParseException {
+        this.expect(JsonToken.NUMBER);
+        String s = this.take();
+        Double special = special(s);
+        if (special != null) return special;
+        if (isHexLiteral(s)) return parseHex(s).doubleValue();
+        return Double.parseDouble(s);
+    }
+
+    public BigDecimal nextBigDecimal() throws JsonParseException {
+        this.expect(JsonToken.NUMBER);
+        String s = this.take();
+        if (special(s) != null) throw this.syntaxError(String.format("number %s cannot be read as a decimal", s));
+        if (isHexLiteral(s)) return parseHex(s);
+        return new BigDecimal(s);
+    }
+
+    /**
+     * Consumes the next token as a number, of the
+     * narrowest exact type among {@link Long},
+     * {@link BigInteger} and {@link BigDecimal},
+     * or a {@link Double} for {@code NaN} and
+     * {@code Infinity}.
+     * @return the number's value
+     * @throws JsonParseException if the next
+     *         token is not a number, or the
+     *         source is malformed
+     */
+    public Number nextNumber() throws JsonParseException {
+        this.expect(JsonToken.NUMBER);
+        String s = this.take();
+        Double special = special(s);
+        if (special != null) return special;
+        BigDecimal d;
+        if (isHexLiteral(s)) d = parseHex(s);
+        else if (s.indexOf('.') < 0 && s.indexOf('e') < 0 && s.indexOf('E') < 0) d = new BigDecimal(new BigInteger(s));
+        else return new BigDecimal(s);
+        if (d.scale() > 0) return d;
+        BigInteger i = d.toBigIntegerExact();
+        return i.bitLength() < 64 ? (Number) i.longValue() : i;
+    }
+
+    /**
+     * Skips the next value, along with all its
+     * children if it is an object or an array.
+     * Preceding comments and ID declarations
+     * are skipped as well, as is the key of
+     * the value if positioned on one.
+     * @throws JsonParseException if there is no
+     *         value to skip, or the source is
+     *         malformed
+     */
+    public void skipValue() throws JsonParseException {
+        int depth = 0;
+        boolean done = false;
+        while (!done) {
+            JsonToken token = this.peek();
+            switch (token) {
+                case BEGIN_OBJECT:
+                    this.beginObject();
+                    depth++;
+                    break;
+                case BEGIN_ARRAY:
+                    this.beginArray();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                case END_DOCUMENT:
+                    if (depth == 0) throw this.syntaxError("no value to skip");
+                    if (token == JsonToken.END_OBJECT) this.endObject();
+                    else this.endArray();
+                    depth--;
+                    done = depth == 0;
+                    break;
+                case NAME:
+                    if (this.peekedText == null) this.readString(false);
+                    this.take();
+                    break;
+                case STRING:
+                    this.readString(false);
+                    this.take();
+                    done = depth == 0;
+                    break;
+                case COMMENT:
+                case ID_DECLARATION:
+                    this.take();
+                    break;
+                default:
+                    this.take();
+                    done = depth == 0;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.peeked = null;
+        this.stack[0] = CLOSED;
+        this.stackSize = 1;
+        this.in.close();
+    }
+
+    // token consumption
+
+    private void expect(JsonToken token) throws JsonParseException {
+        JsonToken found = this.peek();
+        if (found != token) throw this.syntaxError(String.format("expected %s but found %s", token, found));
+    }
+
+    private String take() {
+        String s = this.peekedText;
+        this.peeked = null;
+        this.peekedText = null;
+        this.text = s;
+        return s;
+    }
+
+    private void push(int scope) {
+        if (this.stackSize == this.stack.length) this.stack = Arrays.copyOf(this.stack, this.stackSize * 2);
+        this.stack[this.stackSize++] = scope;
+    }
+
+    private void setScope(int scope) {
+        this.stack[this.stackSize - 1] = scope;
+    }
+
+    // lexing
+
+    private JsonToken doPeek() throws JsonParseException {
+        while (true) {
+            int c = this.nextNonWhitespace();
+            int scope = this.stack[this.stackSize - 1];
+            if (c == '/' && scope != CLOSED) {
+                if (!this.options.json5) throw disabled("comments (json5)");
+                if (this.stackSize == 1 && !this.options.rootComment) throw disabled("root comments");
+                String comment = this.readComment(this.reportComments);
+                if (!this.reportComments) continue;
+                this.peekedText = comment;
+                return JsonToken.COMMENT;
+            }
+            switch (scope) {
+                case EMPTY_DOCUMENT:
+                    if (c == -1) return JsonToken.END_DOCUMENT;
+                    return this.readValue(c, NONEMPTY_DOCUMENT);
+                case NONEMPTY_DOCUMENT:
+                    if (c == -1) return JsonToken.END_DOCUMENT;
+                    throw this.syntaxError("multiple root elements found in Json");
+                case EMPTY_ARRAY:
+                case ARRAY_AFTER_COMMA:
+                    if (c == ']') {
+                        if (scope == ARRAY_AFTER_COMMA && !this.options.json5) throw disabled("trailing commas (json5)");
+                        this.pos++;
+                        return JsonToken.END_ARRAY;
+                    }
+                    if (c == ',') throw this.syntaxError("empty array iteration");
+                    if (c == -1) return this.endOfSource(JsonToken.END_ARRAY);
+                    return this.readValue(c, NONEMPTY_ARRAY);
+                case NONEMPTY_ARRAY:
+                    if (c == ']') {
+                        this.pos++;
+                        return JsonToken.END_ARRAY;
+                    }
+                    if (c == ',') {
+                        this.pos++;
+                        this.setScope(ARRAY_AFTER_COMMA);
+                        continue;
+                    }
+                    if (c == -1) return this.endOfSource(JsonToken.END_ARRAY);
+                    if (this.lineBreak && this.options.lineIter) {
+                        this.setScope(ARRAY_AFTER_COMMA);
+                        continue;
+                    }
+                    throw this.unexpected(c);
+                case EMPTY_OBJECT:
+                case OBJECT_AFTER_COMMA:
+                    if (c == '}') {
+                        if (scope == OBJECT_AFTER_COMMA && !this.options.json5) throw disabled("trailing commas (json5)");
+                        this.pos++;
+                        return JsonToken.END_OBJECT;
+                    }
+                    if (c == ',') throw this.syntaxError("empty object iteration");
+                    if (c == -1) return this.endOfSource(JsonToken.END_OBJECT);
+                    return this.readName(c);
+                case DANGLING_NAME:
+                    if (c == ':') {
+                        this.pos++;
+                        this.setScope(OBJECT_AFTER_COLON);
+                        continue;
+                    }
+                    if (c == -1) throw this.syntaxError("incomplete object node");
+                    throw this.unexpected(c);
+                case OBJECT_AFTER_COLON:
+                    if (c == -1) throw this.syntaxError("incomplete object node");
+                    return this.readValue(c, NONEMPTY_OBJECT);
+                case NONEMPTY_OBJECT:
+                    if (c == '}') {
+                        this.pos++;
+                        return JsonToken.END_OBJECT;
+                    }
+                    if (c == ',') {
+                        this.pos++;
+                        this.setScope(OBJECT_AFTER_COMMA);
+                        continue;
+                    }
+                    if (c == -1) return this.endOfSource(JsonToken.END_OBJECT);
+                    if (this.lineBreak && this.options.lineIter) {
+                        this.setScope(OBJECT_AFTER_COMMA);
+                        continue;
+                    }
+                    throw this.unexpected(c);
+                default:
+                    throw new IllegalStateException("JsonReader is closed");
+            }
+        }
+    }
+
+    private JsonToken endOfSource(JsonToken closing) throws JsonParseException {
+        if (!this.options.autoClose) throw disabled("autoclosing");
+        return closing;
+    }
+
+    private JsonToken readValue(int c, int nextScope) throws JsonParseException {
+        JsonToken token;
+        switch (c) {
+            case '<':
+                token = this.readId();
+                if (token == JsonToken.ID_DECLARATION) return token;
+                break;
+            case '{':
+                this.pos++;
+                token = JsonToken.BEGIN_OBJECT;
+                break;
+            case '[':
+                this.pos++;
+                token = JsonToken.BEGIN_ARRAY;
+                break;
+            case '\'':
+                if (!this.options.json5) throw disabled("single-quoted strings (Json5)");
+            case '"':
+                this.pos++;
+                this.quote = (char) c;
+                token = JsonToken.STRING;
+                break;
+            case 't':
+            case 'T':
+            case 'f':
+            case 'F':
+                if (this.matchWord("true")) this.peekedText = "true";
+                else if (this.matchWord("false")) this.peekedText = "false";
+                else throw this.unexpected(c);
+                token = JsonToken.BOOLEAN;
+                break;
+            case 'n':
+            case 'N':
+                if (this.matchWord("null")) {
+                    this.peekedText = "null";
+                    token = JsonToken.NULL;
+                } else token = this.readNumber();
+                break;
+            case '.':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+            case '+':
+            case '-':
+            case 'i':
+            case 'I':
+                token = this.readNumber();
+                break;
+            default:
+                throw this.unexpected(c);
+        }
+        this.setScope(nextScope);
+        this.lineBreak = false;
+        return token;
+    }
+
+    private JsonToken readName(int c) throws JsonParseException {
+        if (c == '"' || c == '\'') {
+            if (c == '\'' && !this.options.json5) throw disabled("single-quoted strings (Json5)");
+            this.pos++;
+            this.quote = (char) c;
+            this.peekedText = null;
+        } else if (Character.isJavaIdentifierStart(c)) {
+            if (!this.options.json5) throw disabled("unquoted keys (json5)");
+            StringBuilder sb = new StringBuilder();
+            while ((this.pos < this.limit || this.fill(1)) && Character.isJavaIdentifierPart(this.buffer[this.pos])) {
+                sb.append(this.buffer[this.pos++]);
+            }
+            this.peekedText = sb.toString();
+        } else if (c == '{' || c == '[') {
+            throw this.syntaxError("unexpected object key type");
+        } else throw this.unexpected(c);
+        this.setScope(DANGLING_NAME);
+        this.lineBreak = false;
+        return JsonToken.NAME;
+    }
+
+    /**
+     * Reads an ID declaration or reference,
+     * allowing whitespaces within it as the
+     * {@link IdState} does.
+     */
+    private JsonToken readId() throws JsonParseException {
+        this.pos++;
+        int c = this.nextNonWhitespace();
+        JsonToken token;
+        if (c == '@') token = JsonToken.ID_DECLARATION;
+        else if (c == '#') token = JsonToken.ID_REFERENCE;
+        else throw c == -1 ? this.syntaxError("unexpected end of source") : this.unexpected(c);
+        this.pos++;
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            c = this.nextNonWhitespace();
+            if (c >= '0' && c <= '9') sb.append((char) c);
+            else if (c == '>' && sb.length() > 0) break;
+            else throw c == -1 ? this.syntaxError("unexpected end of source") : this.unexpected(c);
+            this.pos++;
+        }
+        this.pos++;
+        this.peekedText = sb.toString();
+        return token;
+    }
+
+    private int parseId(String s) throws JsonParseException {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw this.syntaxError("unable to parse ID " + s);
+        }
+    }
+
+    private JsonToken readNumber() throws JsonParseException {
+        StringBuilder sb = new StringBuilder();
+        boolean hex = false;
+        while (this.pos < this.limit || this.fill(1)) {
+            char c = this.buffer[this.pos];
+            int length = sb.length();
+            if (c == '+' || c == '-') {
+                char last = length == 0 ? 0 : sb.charAt(length - 1);
+                if (length != 0 && (hex || (last != 'e' && last != 'E'))) break;
+            } else if (c == 'x' || c == 'X') {
+                hex = true;
+            } else if (!Character.isLetterOrDigit(c) && c != '.') break;
+            sb.append(c);
+            this.pos++;
+        }
+        String s = sb.toString();
+        this.validateNumber(s);
+        this.peekedText = s;
+        return JsonToken.NUMBER;
+    }
+
+    /**
+     * Checks the specified literal to be a valid
+     * number, and its JSON5 features enabled.
+     */
+    private void validateNumber(String s) throws JsonParseException {
+        int i = 0;
+        int n = s.length();
+        if (n > 0 && (s.charAt(0) == '+' || s.charAt(0) == '-')) {
+            if (s.charAt(0) == '+' && !this.options.json5) throw disabled("explicit positive numbers (json5)");
+            i++;
+        }
+        if (special(s) != null) {
+            if (!this.options.json5) throw disabled("NaN and Infinity (json5)");
+            return;
+        }
+        boolean valid;
+        if (n - i > 2 && s.charAt(i) == '0' && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+            if (!this.options.json5) throw disabled("hexadecimal numbers (json5)");
+            int j = skipDigits(s, i + 2, true);
+            // signed hexadecimal numbers are rejected by the other parsers
+            valid = i == 0 && j > i + 2;
+            if (j < n && s.charAt(j) == '.') {
+                int k = skipDigits(s, j + 1, true);
+                valid &= k > j + 1;
+                j = k;
+            }
+            valid &= j == n;
+        } else {
+            int j = skipDigits(s, i, false);
+            int digits = j - i;
+            boolean edgeDot = false;
+            if (j < n && s.charAt(j) == '.') {
+                int k = skipDigits(s, j + 1, false);
+                edgeDot = digits == 0 || k == j + 1;
+                digits += k - j - 1;
+                j = k;
+            }
+            valid = digits > 0;
+            if (valid && j < n && (s.charAt(j) == 'e' || s.charAt(j) == 'E')) {
+                j++;
+                if (j < n && (s.charAt(j) == '+' || s.charAt(j) == '-')) j++;
+                int k = skipDigits(s, j, false);
+                valid = k > j;
+                j = k;
+            }
+            valid &= j == n;
+            if (valid && edgeDot && !this.options.json5) throw disabled("leading and trailing decimal points (json5)");
+        }
+        if (!valid) throw this.syntaxError("invalid number " + s);
+    }
+
+    private static int skipDigits(String s, int i, boolean hex) {
+        while (i < s.length() && (hex ? JsonParser.isHex(s.charAt(i)) : Character.isDigit(s.charAt(i)))) i++;
+        return i;
+    }
+
+    private static Double special(String s) {
+        int i = s.startsWith("+") || s.startsWith("-") ? 1 : 0;
+        String body = s.substring(i);
+        if (body.equalsIgnoreCase("NaN")) return Double.NaN;
+        if (body.equalsIgnoreCase("Infinity")) return s.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        return null;
+    }
+
+    private static boolean isHexLiteral(String s) {
+        int i = s.startsWith("+") || s.startsWith("-") ? 1 : 0;
+        return s.length() > i + 1 && s.charAt(i) == '0' && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X');
+    }
+
+    private static BigDecimal parseHex(String s) {
+        boolean negative = s.startsWith("-");
+        int i = s.startsWith("+") || negative ? 3 : 2;
+        int dot = s.indexOf('.');
+        BigDecimal value = new BigDecimal(new BigInteger(s.substring(i, dot < 0 ? s.length() : dot), 16));
+        if (dot >= 0) {
+            BigDecimal unit = BigDecimal.ONE;
+            BigDecimal sixteenth = new BigDecimal("0.0625");
+            for (int k = dot + 1; k < s.length(); k++) {
+                unit = unit.multiply(sixteenth);
+                value = value.add(unit.multiply(BigDecimal.valueOf(JsonParser.hexValue(s.charAt(k)))));
+            }
+        }
+        return negative ? value.negate() : value;
+    }
+
+    private static long parseLong(String s) {
+        if (special(s) != null) throw new NumberFormatException(s);
+        if (isHexLiteral(s)) return parseHex(s).longValueExact();
+        if (s.indexOf('.') < 0 && s.indexOf('e') < 0 && s.indexOf('E') < 0) return Long.parseLong(s);
+        return new BigDecimal(s).longValueExact();
+    }
+
+    /**
+     * Reads the content of the string being
+     * peeked, the cursor being right after its
+     * opening quote, and consumes its closing
+     * quote.
+     * @param keep whether to return the string's
+     *             content, or only skip it
+     * @return the string's content if kept,
+     *         {@code null} otherwise
+     */
+    private String readString(boolean keep) throws JsonParseException {
+        StringBuilder sb = null;
+        while (true) {
+            int start = this.pos;
+            while (this.pos < this.limit) {
+                char c = this.buffer[this.pos];
+                if (c == this.quote) {
+                    String s = null;
+                    if (keep) {
+                        if (sb == null) s = new String(this.buffer, start, this.pos - start);
+                        else s = sb.append(this.buffer, start, this.pos - start).toString();
+                    }
+                    this.pos++;
+                    return s;
+                }
+                if (c == '\\' || c == '\n' || c == '\r') break;
+                this.pos++;
+            }
+            if (keep) {
+                if (sb == null) sb = new StringBuilder(Math.max(16, 2 * (this.pos - start)));
+                sb.append(this.buffer, start, this.pos - start);
+            }
+            if (this.pos == this.limit) {
+                if (this.fill(1)) continue;
+                if (!this.options.autoClose) throw disabled("autoclosing");
+                return keep ? sb.toString() : null;
+            }
+            if (this.buffer[this.pos] != '\\') throw this.syntaxError("unexpected newLine");
+            this.pos++;
+            this.readEscape(sb);
+        }
+    }
+
+    /**
+     * Reads the escape sequence following a
+     * backslash, and appends the escaped
+     * char to the specified builder, if any.
+     */
+    private void readEscape(StringBuilder sb) throws JsonParseException {
+        if (this.pos == this.limit && !this.fill(1)) throw this.syntaxError("unterminated escape sequence");
+        char c = this.buffer[this.pos++];
+        char escaped;
+        switch (c) {
+            case 'b':
+                escaped = '\b';
+                break;
+            case 'f':
+                escaped = '\f';
+                break;
+            case 'n':
+                escaped = '\n';
+                break;
+            case 'r':
+                escaped = '\r';
+                break;
+            case 's':
+                escaped = ' ';
+                break;
+            case 't':
+                escaped = '\t';
+                break;
+            case 'v':
+                escaped = '\u000B';
+                break;
+            case '0':
+                escaped = '\0';
+                break;
+            case 'x':
+                escaped = (char) this.readHex(2);
+                break;
+            case 'u':
+                escaped = (char) this.readHex(4);
+                break;
+            case '\r':
+                if ((this.pos < this.limit || this.fill(1)) && this.buffer[this.pos] == '\n') this.pos++;
+            case '\n':
+                // escaped line break, as line continuation
+                this.newLine();
+                return;
+            default:
+                escaped = c;
+        }
+        if (sb != null) sb.append(escaped);
+    }
+
+    private int readHex(int length) throws JsonParseException {
+        if (this.limit - this.pos < length && !this.fill(length)) throw this.syntaxError("unterminated escape sequence");
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = this.buffer[this.pos++];
+            int v = JsonParser.hexValue(c);
+            if (v < 0) throw this.syntaxError("Invalid hexadecimal character '" + c + "' in unicode code");
+            value = (value << 4) + v;
+        }
+        return value;
+    }
+
+    /**
+     * Reads the comment at the cursor, leaving
+     * in-line comments' closing line break for
+     * the whitespace skipping.
+     * @param keep whether to return the comment's
+     *             content, or only skip it
+     * @return the comment's content if kept,
+     *         {@code null} otherwise
+     */
+    private String readComment(boolean keep) throws JsonParseException {
+        if (this.limit - this.pos < 2 && !this.fill(2)) throw this.unexpected('/');
+        char kind = this.buffer[this.pos + 1];
+        if (kind != '/' && kind != '*') throw this.unexpected('/');
+        this.pos += 2;
+        this.blockComment = kind == '*';
+        StringBuilder sb = keep ? new StringBuilder() : null;
+        while (this.pos < this.limit || this.fill(1)) {
+            char c = this.buffer[this.pos];
+            if (c == '\n' || c == '\r') {
+                if (!this.blockComment) break;
+                this.pos++;
+                if (c == '\n') this.newLine();
+                this.lineBreak = true;
+            } else if (this.blockComment && c == '*' && (this.limit - this.pos > 1 || this.fill(2))
+                    && this.buffer[this.pos + 1] == '/') {
+                this.pos += 2;
+                break;
+            } else this.pos++;
+            if (keep) sb.append(c);
+        }
+        return keep ? sb.toString() : null;
+    }
+
+    private boolean matchWord(String word) throws JsonParseException {
+        int length = word.length();
+        if (this.limit - this.pos < length && !this.fill(length)) return false;
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(this.buffer[this.pos + i]) != word.charAt(i)) return false;
+        }
+        this.pos += length;
+        return true;
+    }
+
+    /**
+     * Skips whitespaces, and returns the next
+     * char without consuming it, or {@code -1}
+     * if the source's end is reached.
+     */
+    private int nextNonWhitespace() throws JsonParseException {
+        while (this.pos < this.limit || this.fill(1)) {
+            char c = this.buffer[this.pos];
+            if (c == '\n') {
+                this.pos++;
+                this.newLine();
+                this.lineBreak = true;
+            } else if (Character.isWhitespace(c) || c == '\u00A0' || c == '\uFEFF') {
+                this.pos++;
+            } else return c;
+        }
+        return -1;
+    }
+
+    private void newLine() {
+        this.line++;
+        this.lineStart = this.bufferStart + this.pos;
+    }
+
+    /**
+     * Reads the source until at least the
+     * specified number of chars are available
+     * from the cursor, compacting the buffer
+     * beforehand.
+     * @return whether the specified number of
+     *         chars are available
+     */
+    private boolean fill(int minimum) throws JsonParseException {
+        if (this.pos > 0) {
+            System.arraycopy(this.buffer, this.pos, this.buffer, 0, this.limit - this.pos);
+            this.bufferStart += this.pos;
+            this.limit -= this.pos;
+            this.pos = 0;
+        }
+        if (minimum > this.buffer.length) this.buffer = Arrays.copyOf(this.buffer, Math.max(minimum, this.buffer.length * 2));
+        try {
+            int n;
+            while (this.limit < minimum && (n = this.in.read(this.buffer, this.limit, this.buffer.length - this.limit)) != -1) {
+                this.limit += n;
+            }
+        } catch (IOException e) {
+            throw new JsonParseException(e);
+        }
+        return this.limit >= minimum;
+    }
+
+    // errors
+
+    private JsonParseException unexpected(int c) {
+        return this.syntaxError(String.format("unexpected character '%c'", (char) c));
+    }
+
+    private JsonParseException syntaxError(String s) {
+        return new JsonParseException(String.format(
+                "Error parsing reader to json element: %s at index %d of line %d",
+                s, this.getLineIndex(), this.line
+        ));
+    }
+
+    private static DisabledFeatureException disabled(String s) {
+        return new DisabledFeatureException("Disabled JSON parsing feature "+s+", enable it or modify your source");
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A parser for sources holding multiple root
+ * elements, either newline-delimited (NDJSON)
+ * or back-to-back, returning them one by one
+ * as they are read.
+ * </p>
+ * <p>The source is read by blocks into a single
+ * reusable buffer, handed over to an
+ * {@link IncrementalParser}, so that only the
+ * record being parsed is held in memory.
+ * </p>
+ * <p>As an {@link Iterator}, parsing and reading
+ * errors are thrown as
+ * {@link UncheckedJsonParseException} and
+ * {@link UncheckedIOException}. Use
+ * {@link #nextElement()} to get them as checked
+ * exceptions instead.
+ * </p>
+ * @see io.github.nerjalnosk.jsonlight.NdjsonWriter
+ * @author nerjal
+ */
+public class JsonStreamParser implements Iterator<JsonElement>, Closeable {
+    /**
+     * Default number of characters read
+     * from the source at once.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    private final Reader in;
+    private final IncrementalParser parser;
+    private final char[] buffer;
+    private final Deque<JsonElement> queue = new ArrayDeque<>();
+    private boolean ended = false;
+
+    public JsonStreamParser(Reader in) {
+        this(in, new ParserOptions.Builder().json5().classic().build(), DEFAULT_BUFFER_SIZE);
+    }
+
+    public JsonStreamParser(Reader in, ParserOptions options) {
+        this(in, options, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Instantiates a parser reading the
+     * specified source by blocks of the
+     * specified size.
+     * @param in the source to be parsed
+     * @param options the parsing options
+     * @param bufferSize the number of chars
+     *                   to be read from the
+     *                   source at once
+     * @throws IllegalArgumentException if the
+     *         buffer size is not strictly
+     *         positive
+     */
+    public JsonStreamParser(Reader in, ParserOptions options, int bufferSize) {
+        if (bufferSize < 1) throw new IllegalArgumentException("buffer size must be strictly positive");
+        this.in = in;
+        this.parser = new IncrementalParser(options);
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Returns whether there is a next root
+     * element in the source, reading it if
+     * needed.
+     * @return whether there is a next root
+     *         element
+     * @throws IOException if the source cannot
+     *         be read
+     * @throws JsonParseException if the next
+     *         root element cannot be parsed
+     */
+    public boolean hasNextElement() throws IOException, JsonParseException {
+        while (this.queue.isEmpty() && !this.ended) {
+            int n = this.in.read(this.buffer);
+            if (n < 0) {
+                this.ended = true;
+                this.queue.addAll(this.parser.endOfInput());
+            } else {
+                this.queue.addAll(this.parser.feed(this.buffer, 0, n));
+            }
+        }
+        return !this.queue.isEmpty();
+    }
+
+    /**
+     * Returns the next root element in the
+     * source.
+     * @return the next root element
+     * @throws IOException if the source cannot
+     *         be read
+     * @throws JsonParseException if the next
+     *         root element cannot be parsed
+     * @throws NoSuchElementException if there
+     *         is no more element in the source
+     */
+    public JsonElement nextElement() throws IOException, JsonParseException {
+        if (!this.hasNextElement()) throw new NoSuchElementException();
+        return this.queue.poll();
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return this.hasNextElement();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (JsonParseException e) {
+            throw new UncheckedJsonParseException(e);
+        }
+    }
+
+    @Override
+    public JsonElement next() {
+        if (!this.hasNext()) throw new NoSuchElementException();
+        return this.queue.poll();
+    }
+
+    /**
+     * Returns a sequential stream of the source's
+     * root elements, closing the source when
+     * closed.
+     * @return a stream of the source's root
+     *         elements
+     */
+    public Stream<JsonElement> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+            try {
+                this.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.ended = true;
+        this.queue.clear();
+        this.parser.reset();
+        this.in.close();
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+/**
+ * The types of tokens a {@link JsonReader}
+ * can read from a JSON5 source.
+ * @author nerjal
+ */
+public enum JsonToken {
+    /**
+     * Opening of an object ({@code '{'})
+     */
+    BEGIN_OBJECT,
+    /**
+     * Closing of an object ({@code '}'})
+     */
+    END_OBJECT,
+    /**
+     * Opening of an array ({@code '['})
+     */
+    BEGIN_ARRAY,
+    /**
+     * Closing of an array ({@code ']'})
+     */
+    END_ARRAY,
+    /**
+     * An object key, either quoted or not.
+     */
+    NAME,
+    /**
+     * A string value, either single or
+     * double-quoted.
+     */
+    STRING,
+    /**
+     * A number value, including hexadecimal
+     * numbers, {@code NaN} and
+     * {@code Infinity}.
+     */
+    NUMBER,
+    /**
+     * A boolean value.
+     */
+    BOOLEAN,
+    /**
+     * A {@code null} value.
+     */
+    NULL,
+    /**
+     * An in-line or block comment. Only
+     * reported if the reader is set to.
+     * @see JsonReader#setReportComments(boolean)
+     */
+    COMMENT,
+    /**
+     * A circular ID declaration
+     * ({@code <@id>}), preceding the value it
+     * is declared for.
+     */
+    ID_DECLARATION,
+    /**
+     * A circular ID reference
+     * ({@code <#id>}), standing for a value.
+     */
+    ID_REFERENCE,
+    /**
+     * The end of the source.
+     */
+    END_DOCUMENT
+}
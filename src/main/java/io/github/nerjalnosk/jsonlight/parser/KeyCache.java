@@ -0,0 +1,173 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A bounded canonicalization table for object
+ * keys, so that identical keys parsed over and
+ * over share a single {@link String} instance.
+ * </p>
+ * <p>Keys are looked up by their chars, without
+ * building a new string beforehand, one being
+ * only built on misses. The table is
+ * direct-mapped: a key evicts the previous one
+ * sharing its slot. Keys longer than
+ * {@link #MAX_KEY_LENGTH} are not cached.
+ * </p>
+ * <p>Each parser uses its own cache by default.
+ * A cache may be shared across parses, including
+ * concurrent ones, by setting it in the
+ * {@link ParserOptions}.
+ * </p>
+ * @see ParserOptions.Builder#keyCache(KeyCache)
+ * @author nerjal
+ */
+public final class KeyCache {
+    /**
+     * Default number of slots of a cache.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * Length of the longest cached keys.
+     */
+    public static final int MAX_KEY_LENGTH = 64;
+    private final String[] table;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public KeyCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Instantiates a cache with at least the
+     * specified number of slots.
+     * @param capacity the cache's minimal number
+     *                 of slots, rounded up to a
+     *                 power of two
+     * @throws IllegalArgumentException if the
+     *         capacity is not strictly positive
+     */
+    public KeyCache(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be strictly positive");
+        int size = 1;
+        while (size < capacity && size < 1 << 30) size <<= 1;
+        this.table = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the cached key matching the
+     * specified chars, caching them if none
+     * does.
+     * @param chars the key's chars
+     * @return the canonical key
+     */
+    public String intern(CharSequence chars) {
+        int length = chars.length();
+        if (length > MAX_KEY_LENGTH) {
+            this.misses.increment();
+            return chars.toString();
+        }
+        int h = 0;
+        for (int i = 0; i < length; i++) h = 31 * h + chars.charAt(i);
+        int slot = spread(h) & this.mask;
+        String key = this.table[slot];
+        if (key != null && key.hashCode() == h && key.contentEquals(chars)) {
+            this.hits.increment();
+            return key;
+        }
+        key = chars.toString();
+        this.table[slot] = key;
+        this.misses.increment();
+        return key;
+    }
+
+    /**
+     * Returns the cached key matching the
+     * specified range of ASCII bytes, caching
+     * them if none does.
+     * @param bytes the bytes array
+     * @param from the range's first index
+     * @param to the range's end index, exclusive
+     * @return the canonical key
+     */
+    public String intern(byte[] bytes, int from, int to) {
+        int length = to - from;
+        if (length > MAX_KEY_LENGTH) {
+            this.misses.increment();
+            return new String(bytes, from, length, StandardCharsets.ISO_8859_1);
+        }
+        int h = 0;
+        for (int i = from; i < to; i++) h = 31 * h + (bytes[i] & 0xFF);
+        int slot = spread(h) & this.mask;
+        String key = this.table[slot];
+        if (key != null && key.hashCode() == h && matches(key, bytes, from, length)) {
+            this.hits.increment();
+            return key;
+        }
+        key = new String(bytes, from, length, StandardCharsets.ISO_8859_1);
+        this.table[slot] = key;
+        this.misses.increment();
+        return key;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String key, byte[] bytes, int from, int length) {
+        if (key.length() != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(i) != (bytes[from + i] & 0xFF)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of lookups which found
+     * their key in the cache.
+     * @return the cache's number of hits
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups which did not
+     * find their key in the cache.
+     * @return the cache's number of misses
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the ratio of lookups which found
+     * their key in the cache.
+     * @return the cache's hit rate, between
+     *         {@code 0} and {@code 1}
+     */
+    public double getHitRate() {
+        long h = this.getHits();
+        long total = h + this.getMisses();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Empties the cache and resets its stats.
+     */
+    public void clear() {
+        Arrays.fill(this.table, null);
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("KeyCache{slots=%d, hits=%d, misses=%d}", this.table.length, this.getHits(), this.getMisses());
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.elements.Indentation;
+import io.github.nerjalnosk.jsonlight.elements.JsonArray;
+import io.github.nerjalnosk.jsonlight.elements.JsonComment;
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+import io.github.nerjalnosk.jsonlight.parser.options.ParseSet;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * A {@link JsonArray} created by the
+ * {@link LazyParser}, only parsing its
+ * source span upon its content's first
+ * access.
+ * @author nerjal
+ */
+final class LazyJsonArray extends JsonArray {
+    private final ParserOptions options;
+    private String source;
+    private final int from;
+    private final int to;
+    private UncheckedJsonParseException failure = null;
+
+    LazyJsonArray(String source, int from, int to, ParserOptions options) {
+        super();
+        this.source = source;
+        this.from = from;
+        this.to = to;
+        this.options = options;
+    }
+
+    /**
+     * Parses the array's source span, if not
+     * done yet.
+     * @throws UncheckedJsonParseException if the
+     *         span cannot be parsed
+     */
+    private void load() {
+        if (this.failure != null) throw this.failure;
+        if (this.source == null) return;
+        String s = this.source.substring(this.from, this.to);
+        this.source = null;
+        try {
+            new LazyParser(s, this.options, this).parse();
+        } catch (JsonParseException e) {
+            this.failure = new UncheckedJsonParseException(e);
+            throw this.failure;
+        }
+    }
+
+    @Override
+    public JsonElement get(int index) throws IndexOutOfBoundsException {
+        this.load();
+        return super.get(index);
+    }
+
+    @Override
+    public JsonElement[] getAll(int from, int to) {
+        this.load();
+        return super.getAll(from, to);
+    }
+
+    @Override
+    public JsonComment[] getAllComments() {
+        this.load();
+        return super.getAllComments();
+    }
+
+    @Override
+    public int size() {
+        this.load();
+        return super.size();
+    }
+
+    @Override
+    public boolean remove(JsonElement element) {
+        this.load();
+        return super.remove(element);
+    }
+
+    @Override
+    public JsonElement remove(int index) {
+        this.load();
+        return super.remove(index);
+    }
+
+    @Override
+    public Collection<JsonElement> removeAll(Collection<JsonElement> elements) {
+        this.load();
+        return super.removeAll(elements);
+    }
+
+    @Override
+    public void add(JsonElement element) {
+        this.load();
+        super.add(element);
+    }
+
+    @Override
+    public void add(int index, JsonElement element) {
+        this.load();
+        super.add(index, element);
+    }
+
+    @Override
+    public void addAll(Iterable<JsonElement> elements) {
+        this.load();
+        super.addAll(elements);
+    }
+
+    @Override
+    public void addAll(JsonElement[] elements) {
+        this.load();
+        super.addAll(elements);
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<JsonElement> operator) {
+        this.load();
+        super.replaceAll(operator);
+    }
+
+    @Override
+    public void push(JsonArray array) {
+        this.load();
+        super.push(array);
+    }
+
+    @Override
+    public void pushAll(JsonArray array) {
+        this.load();
+        super.pushAll(array);
+    }
+
+    @Override
+    protected String stringify(ParseSet parseSet, String indentation, String indentIncrement, ExplorationStack stack)
+            throws RecursiveJsonElementException {
+        this.load();
+        return super.stringify(parseSet, indentation, indentIncrement, stack);
+    }
+
+    @Override
+    protected void write(Appendable out, ParseSet parseSet, Indentation indentation, ExplorationStack stack)
+            throws RecursiveJsonElementException, IOException {
+        this.load();
+        super.write(out, parseSet, indentation, stack);
+    }
+
+    @Override
+    protected ExplorationStack explore(ExplorationStack stack) {
+        this.load();
+        return super.explore(stack);
+    }
+
+    @Override
+    public void forAll(Consumer<? super JsonElement> action) {
+        this.load();
+        super.forAll(action);
+    }
+
+    @Override
+    public Iterator<JsonElement> iterator() {
+        this.load();
+        return super.iterator();
+    }
+
+    @Override
+    public JsonArray clone() {
+        this.load();
+        return super.clone();
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.elements.Indentation;
+import io.github.nerjalnosk.jsonlight.elements.JsonComment;
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+import io.github.nerjalnosk.jsonlight.elements.JsonObject;
+import io.github.nerjalnosk.jsonlight.parser.options.ObjectParseOptions;
+import io.github.nerjalnosk.jsonlight.parser.options.ParseSet;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * A {@link JsonObject} created by the
+ * {@link LazyParser}, only parsing its
+ * source span upon its content's first
+ * access.
+ * @author nerjal
+ */
+final class LazyJsonObject extends JsonObject {
+    private final ParserOptions options;
+    private String source;
+    private final int from;
+    private final int to;
+    private UncheckedJsonParseException failure = null;
+
+    LazyJsonObject(String source, int from, int to, ParserOptions options) {
+        super(new ObjectParseOptions(true));
+        this.source = source;
+        this.from = from;
+        this.to = to;
+        this.options = options;
+    }
+
+    /**
+     * Parses the object's source span, if not
+     * done yet.
+     * @throws UncheckedJsonParseException if the
+     *         span cannot be parsed
+     */
+    private void load() {
+        if (this.failure != null) throw this.failure;
+        if (this.source == null) return;
+        String s = this.source.substring(this.from, this.to);
+        this.source = null;
+        try {
+            new LazyParser(s, this.options, this).parse();
+        } catch (JsonParseException e) {
+            this.failure = new UncheckedJsonParseException(e);
+            throw this.failure;
+        }
+    }
+
+    @Override
+    public JsonElement get(String key) throws ChildNotFoundException {
+        this.load();
+        return super.get(key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        this.load();
+        return super.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        this.load();
+        return super.size();
+    }
+
+    @Override
+    public boolean contains(String key) {
+        this.load();
+        return super.contains(key);
+    }
+
+    @Override
+    public boolean add(String key, JsonElement element) {
+        this.load();
+        return super.add(key, element);
+    }
+
+    @Override
+    public boolean rename(String key, String newKey) throws ChildNotFoundException, IllegalArgumentException {
+        this.load();
+        return super.rename(key, newKey);
+    }
+
+    @Override
+    public JsonElement forceRename(String key, String newKey) throws ChildNotFoundException, IllegalArgumentException {
+        this.load();
+        return super.forceRename(key, newKey);
+    }
+
+    @Override
+    public void put(String key, JsonElement element) {
+        this.load();
+        super.put(key, element);
+    }
+
+    @Override
+    public void set(String key, JsonElement element) {
+        this.load();
+        super.set(key, element);
+    }
+
+    @Override
+    public JsonElement remove(String key) throws ChildNotFoundException {
+        this.load();
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(String key, JsonElement j) {
+        this.load();
+        return super.remove(key, j);
+    }
+
+    @Override
+    public Collection<JsonElement> remove(UnaryOperator<JsonElement> operator) {
+        this.load();
+        return super.remove(operator);
+    }
+
+    @Override
+    public void clear() {
+        this.load();
+        super.clear();
+    }
+
+    @Override
+    public int push(JsonObject object) {
+        this.load();
+        return super.push(object);
+    }
+
+    @Override
+    public int recursivePush(JsonObject object) {
+        this.load();
+        return super.recursivePush(object);
+    }
+
+    @Override
+    public int pushAll(JsonObject object) {
+        this.load();
+        return super.pushAll(object);
+    }
+
+    @Override
+    public int recursivePushAll(JsonObject object) {
+        this.load();
+        return super.recursivePushAll(object);
+    }
+
+    @Override
+    protected String stringify(ParseSet parseSet, String indentation, String indentIncrement, ExplorationStack stack)
+            throws RecursiveJsonElementException {
+        this.load();
+        return super.stringify(parseSet, indentation, indentIncrement, stack);
+    }
+
+    @Override
+    protected void write(Appendable out, ParseSet parseSet, Indentation indentation, ExplorationStack stack)
+            throws RecursiveJsonElementException, IOException {
+        this.load();
+        super.write(out, parseSet, indentation, stack);
+    }
+
+    @Override
+    protected ExplorationStack explore(ExplorationStack stack) {
+        this.load();
+        return super.explore(stack);
+    }
+
+    @Override
+    public Set<JsonNode> entrySet() {
+        this.load();
+        return super.entrySet();
+    }
+
+    @Override
+    public Set<Map.Entry<String, JsonElement>> allEntriesSet() {
+        this.load();
+        return super.allEntriesSet();
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, ? super JsonElement> action) {
+        this.load();
+        super.forEach(action);
+    }
+
+    @Override
+    public void forAll(BiConsumer<String, ? super JsonElement> action) {
+        this.load();
+        super.forAll(action);
+    }
+
+    @Override
+    public void forAllComments(Consumer<JsonComment> action) {
+        this.load();
+        super.forAllComments(action);
+    }
+
+    @Override
+    public Iterator<JsonNode> iterator() {
+        this.load();
+        return super.iterator();
+    }
+
+    @Override
+    public JsonObject clone() {
+        this.load();
+        return super.clone();
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.elements.JsonArray;
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+import io.github.nerjalnosk.jsonlight.elements.JsonObject;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A parser only parsing the first level of its
+ * source's root element, its nested objects and
+ * arrays being parsed on demand.
+ * </p>
+ * <p>Nested containers are only skip-scanned for
+ * their bounds, and returned as objects and
+ * arrays recording their source span. Such a
+ * container is parsed the first time its
+ * content is accessed, in turn leaving its own
+ * nested containers unparsed. Untouched
+ * subtrees are thus never parsed.
+ * </p>
+ * <p>As a consequence, errors within a nested
+ * container are only raised once it is
+ * accessed, as an
+ * {@link UncheckedJsonParseException}, whose
+ * positions are relative to the container.<br>
+ * Sources are parsed eagerly if circular
+ * structures are enabled, as their IDs may be
+ * referenced across containers.
+ * </p>
+ * @author nerjal
+ */
+public class LazyParser extends StringParser {
+    private final String source;
+    private final JsonElement target;
+    private ParserState container = null;
+
+    public LazyParser(String s) {
+        this(s, new ParserOptions.Builder().json5().classic().build());
+    }
+
+    public LazyParser(String s, ParserOptions options) {
+        this(s, options, null);
+    }
+
+    /**
+     * Instantiates a parser filling the specified
+     * container with the source's root element.
+     * @param s the string to be parsed
+     * @param options the parsing options
+     * @param target the container to fill, or
+     *               {@code null} to create a
+     *               new one
+     */
+    LazyParser(String s, ParserOptions options, JsonElement target) {
+        super(s, options);
+        this.source = s;
+        this.target = target;
+    }
+
+    @Override
+    public void switchState(ParserState parserState) {
+        if (parserState == this.container || this.options.circular
+                || !(parserState instanceof ObjectState || parserState instanceof ArrayState)) {
+            super.switchState(parserState);
+            return;
+        }
+        ParserState olderState = ((AbstractState) parserState).olderState;
+        if (this.container == null) {
+            if (this.target instanceof JsonObject && parserState instanceof ObjectState) {
+                parserState = new ObjectState(this, olderState, (JsonObject) this.target);
+            } else if (this.target instanceof JsonArray && parserState instanceof ArrayState) {
+                parserState = new ArrayState(this, olderState, (JsonArray) this.target);
+            }
+            this.container = parserState;
+            super.switchState(parserState);
+            return;
+        }
+        int start = this.getIndex();
+        int end = this.skip(start);
+        if (end < 0) {
+            // unclosed, left to the state to handle
+            super.switchState(parserState);
+            return;
+        }
+        JsonElement element = parserState instanceof ObjectState ?
+                new LazyJsonObject(this.source, start, end + 1, this.options) :
+                new LazyJsonArray(this.source, start, end + 1, this.options);
+        this.move(start, end);
+        olderState.addSubElement(element);
+    }
+
+    /**
+     * Returns the index of the closing char of the
+     * container opening at the specified index, or
+     * {@code -1} if it is not closed.
+     */
+    private int skip(int start) {
+        StructuralScanner scanner = new StructuralScanner();
+        int length = this.source.length();
+        for (int i = start; i < length; i++) {
+            if ((scanner.next(this.source.charAt(i)) & StructuralScanner.ENDED) != 0) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the cursor over the skipped container,
+     * keeping track of its lines.
+     */
+    private void move(int start, int end) {
+        int last = this.source.lastIndexOf('\n', end);
+        if (last < start) {
+            this.forward(end - start);
+            return;
+        }
+        this.forward(last - start);
+        for (int i = start; i <= last; i++) {
+            if (this.source.charAt(i) == '\n') this.increaseLine();
+        }
+        this.forward(end - last);
+    }
+
+    /**
+     * Static method that instantiates a new
+     * parser with the specified string and
+     * runs it directly, only returning the
+     * parsing output.
+     * @param s the string to be parsed
+     * @return the {@link JsonElement}
+     *         corresponding to the specified
+     *         string, nested containers
+     *         being parsed on demand
+     * @throws JsonParseException if any
+     *         exception is raised while
+     *         trying to parse the root
+     *         element's first level
+     */
+    public static JsonElement parse(String s) throws JsonParseException {
+        return new LazyParser(s).parse();
+    }
+}
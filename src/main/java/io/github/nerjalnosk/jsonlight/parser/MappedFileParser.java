@@ -0,0 +1,152 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.JsonParser;
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A parser to get a JSON5 structure from a
+ * UTF-8 file, by mapping it to memory rather
+ * than reading it.
+ * </p>
+ * <p>The file is mapped by segments, each
+ * new one starting at the opening of the
+ * state being parsed, thus letting the OS
+ * page cache handle the I/O without any
+ * heap copy of the file's content. This
+ * allows parsing files over 2 GB, as long
+ * as no single string or comment exceeds
+ * that size.
+ * </p>
+ * Cursor indexes are byte offsets, which
+ * may be re-based on files over 1 GB.
+ * @see JsonParser#parseFile(File, boolean)
+ * @author nerjal
+ */
+public class MappedFileParser extends ByteParser {
+    /**
+     * Default number of bytes mapped at once.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 26;
+    private static final long REBASE_THRESHOLD = 1 << 30;
+    private final FileChannel channel;
+    private final long size;
+    private final int segmentSize;
+    /**
+     * The file position of the parser's index
+     * {@code 0}.
+     */
+    private long origin = 0;
+
+    public MappedFileParser(File f) throws IOException {
+        this(f, new ParserOptions.Builder().json5().classic().build(), DEFAULT_SEGMENT_SIZE);
+    }
+
+    public MappedFileParser(File f, ParserOptions options) throws IOException {
+        this(f, options, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Instantiates a parser mapping the
+     * specified file by segments of the
+     * specified size.
+     * @param f the file to be parsed
+     * @param options the parsing options
+     * @param segmentSize the number of bytes
+     *                    to be mapped at once
+     * @throws IOException if the file cannot
+     *         be opened
+     * @throws IllegalArgumentException if the
+     *         segment size is not strictly
+     *         positive
+     */
+    public MappedFileParser(File f, ParserOptions options, int segmentSize) throws IOException {
+        super(options);
+        if (segmentSize < 1) throw new IllegalArgumentException("segment size must be strictly positive");
+        this.segmentSize = segmentSize;
+        this.channel = FileChannel.open(f.toPath(), StandardOpenOption.READ);
+        this.size = this.channel.size();
+    }
+
+    @Override
+    protected boolean fill(int i) {
+        if (i < this.bufferOffset) return false;
+        if (i < this.bufferOffset + this.filled) return true;
+        long pos = this.origin + i;
+        if (pos >= this.size) {
+            this.close();
+            return false;
+        }
+        // keep one byte before the state's opening for #getPrecedent
+        long start = Math.max(0, this.origin + this.getMark() - 1);
+        if (pos - start >= Integer.MAX_VALUE) {
+            if (this.run) this.error("element too large to be mapped");
+            return false;
+        }
+        long length = Math.min(this.size - start, Math.max(this.segmentSize, pos - start + 1));
+        try {
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        } catch (IOException e) {
+            this.close();
+            if (this.run) this.error(new JsonParseException(e));
+            return false;
+        }
+        if (start - this.origin >= REBASE_THRESHOLD) {
+            int delta = (int) (start - this.origin);
+            this.rebase(delta);
+            this.origin += delta;
+        }
+        this.bufferOffset = (int) (start - this.origin);
+        this.filled = (int) length;
+        return true;
+    }
+
+    private void close() {
+        if (!this.channel.isOpen()) return;
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            Arrays.stream(e.getStackTrace()).forEach(this::log);
+        }
+    }
+
+    @Override
+    public JsonElement parse() throws JsonParseException {
+        try {
+            return super.parse();
+        } finally {
+            this.close();
+        }
+    }
+
+    /**
+     * Static method that instantiates a new
+     * parser with the specified file and
+     * runs it directly, only returning the
+     * parsing output.
+     * @param f the file to be parsed
+     * @return the {@link JsonElement}
+     *         corresponding to the specified
+     *         file
+     * @throws IOException if the file cannot
+     *         be opened
+     * @throws JsonParseException if any
+     *         exception is raised while
+     *         trying to parse the file
+     */
+    public static JsonElement parse(File f) throws IOException, JsonParseException {
+        return new MappedFileParser(f).parse();
+    }
+
+    @Override
+    public String getParserDataKey() {
+        return "file";
+    }
+}
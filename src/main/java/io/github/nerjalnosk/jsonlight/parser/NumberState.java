@@ -4,8 +4,7 @@ import io.github.nerjalnosk.jsonlight.elements.JsonNumber;
 import io.github.nerjalnosk.jsonlight.parser.options.NumberParseOptions;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.List;
+import java.math.BigInteger;
 
 /**
  * The {@link StringParser} JSON
@@ -16,17 +15,60 @@ import java.util.List;
  * @author nerjal
  */
 public class NumberState extends AbstractState {
+    /**
+     * Most significant digits accumulated for
+     * integers, keeping them within a long.
+     */
+    static final int MAX_LONG_DIGITS = 18;
+    /**
+     * Most significant digits accumulated for
+     * floating numbers, keeping them lossless
+     * as doubles.
+     */
+    private static final int MAX_DOUBLE_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final BigDecimal ONE_SIXTEENTH = new BigDecimal("0.0625");
     private int charCount = 0;
     private boolean foundE = false;
     private boolean foundDecimal = false;
     private boolean isHex = false;
+    private boolean negative = false;
+    private long significand = 0;
+    private int digits = 0;
+    private int fractionDigits = 0;
+    private int exponent = 0;
+    private boolean negativeExponent = false;
+    private long hexValue = 0;
+    private BigInteger hexOverflow = null;
+    private int hexFractionDigits = 0;
 
     public NumberState(StringParser stringParser, ParserState olderState) {
         super(stringParser, olderState);
-        if (this.parser.getActual() == '.') {
+        char c = this.parser.getActual();
+        if (c == '.') {
             this.foundDecimal = true;
             this.charCount ++;
+        } else if (c == '-') this.negative = true;
+        else if (c >= '0' && c <= '9') this.accumulate(c);
+    }
+
+    /**
+     * Accumulates the specified digit into the
+     * number's significand or exponent.
+     * @param c the read digit
+     */
+    private void accumulate(char c) {
+        if (this.foundE) {
+            // out of any double's range anyway
+            if (this.exponent < 100000) this.exponent = this.exponent * 10 + (c - '0');
+            return;
         }
+        if (this.digits > 0 || c != '0') this.digits++;
+        if (this.digits <= MAX_LONG_DIGITS) this.significand = this.significand * 10 + (c - '0');
+        if (this.foundDecimal) this.fractionDigits++;
     }
 
     /**
@@ -45,35 +87,42 @@ public class NumberState extends AbstractState {
     }
 
     /**
-     * Transforms the specified
-     * hex number string to a
-     * decimal number string
-     * @param s the hex string to
-     *          transform into
-     *          a decimal
-     * @return the decimal string
-     *         of the specified
-     *         hex number string
+     * Accumulates the specified hex digit into
+     * the number's value, spilling it into a
+     * {@link BigInteger} once it overflows a
+     * long.
+     * @param c the read hex digit
      */
-    private String hexString(String s) {
-        List<String> str = Arrays.asList(s.substring(2).split("\\."));
-        StringBuilder sb = new StringBuilder();
-        int i = 0;
-        for (char c : str.get(0).toCharArray()) {
-            i *= 16;
-            i += Integer.parseInt(String.valueOf(c),16);
-        }
-        sb.append(String.format("%d",i));
-        if (this.foundDecimal) {
-            double d = 1;
-            double r = 0;
-            for (char c : str.get(1).toCharArray()) {
-                d /= 16;
-                r += d * Integer.parseInt(String.valueOf(c),16);
-            }
-            sb.append(String.format("%f",r).substring(1));
+    private void accumulateHex(char c) {
+        int digit = Character.digit(c, 16);
+        if (this.hexOverflow != null) {
+            this.hexOverflow = this.hexOverflow.shiftLeft(4).or(BigInteger.valueOf(digit));
+        } else if (this.hexValue >>> 59 != 0) {
+            this.hexOverflow = BigInteger.valueOf(this.hexValue).shiftLeft(4).or(BigInteger.valueOf(digit));
+        } else this.hexValue = this.hexValue << 4 | digit;
+        if (this.foundDecimal) this.hexFractionDigits++;
+    }
+
+    /**
+     * Returns the hexadecimal number built from
+     * the accumulated digits.<br>
+     * Fractions are kept exact, as a double if
+     * their digits fit one and decimals are not
+     * to be exact, as a {@link BigDecimal}
+     * otherwise.
+     * @return the parsed hexadecimal number
+     */
+    private JsonNumber hexNumber() {
+        NumberParseOptions options = new NumberParseOptions();
+        options.setFormat(NumberParseOptions.NumberFormat.HEXADECIMAL);
+        if (this.hexOverflow == null) {
+            if (this.hexFractionDigits == 0) return new JsonNumber(this.hexValue, options);
+            if (this.hexValue < 1L << 53 && !this.parser.options.exactDecimal)
+                return new JsonNumber(Math.scalb((double) this.hexValue, -4 * this.hexFractionDigits), options);
         }
-        return sb.toString();
+        BigInteger unscaled = this.hexOverflow == null ? BigInteger.valueOf(this.hexValue) : this.hexOverflow;
+        if (this.hexFractionDigits == 0) return new JsonNumber(unscaled, options);
+        return new JsonNumber(new BigDecimal(unscaled).multiply(ONE_SIXTEENTH.pow(this.hexFractionDigits)), options);
     }
 
     /**
@@ -162,10 +211,12 @@ public class NumberState extends AbstractState {
             case '7':
             case '8':
             case '9':
+                if (this.isHex) this.accumulateHex(c);
+                else this.accumulate(c);
                 break;
             case 'e':
             case 'E':
-                if (this.isHex) break;
+                if (this.isHex) this.accumulateHex(c);
                 else if (this.foundE) this.error("scientific notation with double E");
                 else this.foundE = true;
                 break;
@@ -179,7 +230,7 @@ public class NumberState extends AbstractState {
                 break;
             case 'a':
             case 'A':
-                if (this.isHex) break;
+                if (this.isHex) this.accumulateHex(c);
                 else if (this.charCount == 0) this.readNaN();
                 else this.unexpectedCharError(c);
                 break;
@@ -191,7 +242,8 @@ public class NumberState extends AbstractState {
             case 'D':
             case 'f':
             case 'F':
-                if (!this.isHex) this.unexpectedCharError(c);
+                if (this.isHex) this.accumulateHex(c);
+                else this.unexpectedCharError(c);
                 break;
             case 'i':
             case 'I':
@@ -202,8 +254,10 @@ public class NumberState extends AbstractState {
                 break;
             case '-':
             case '+':
-                if (this.charCount != 0 && (this.parser.getPrecedent() == 'e' || this.parser.getPrecedent() == 'E'))
+                if (this.charCount != 0 && !this.isHex && (this.parser.getPrecedent() == 'e' || this.parser.getPrecedent() == 'E')) {
+                    this.negativeExponent = c == '-';
                     break;
+                }
             default:
                 this.close();
                 return;
@@ -211,23 +265,58 @@ public class NumberState extends AbstractState {
         this.charCount++;
     }
 
+    /**
+     * Returns the number built from the specified
+     * accumulated parts without going through
+     * {@link BigDecimal} parsing, or {@code null}
+     * if it cannot be built losslessly as a long
+     * or double.
+     * @param negative whether the number is
+     *                 negative
+     * @param significand the number's digits,
+     *                    without dot
+     * @param digits the number of significant
+     *               digits
+     * @param exponent the number's base-ten
+     *                 exponent, fraction digits
+     *                 included
+     * @param floating whether the number holds
+     *                 a dot or an exponent
+     * @param options the number's stringification
+     *                options
+     * @return the built number, or {@code null}
+     */
+    static JsonNumber fastNumber(boolean negative, long significand, int digits, int exponent, boolean floating,
+                                 NumberParseOptions options) {
+        if (!floating) {
+            if (digits > MAX_LONG_DIGITS) return null;
+            return new JsonNumber(negative ? -significand : significand, options);
+        }
+        if (digits > MAX_DOUBLE_DIGITS || exponent < -22 || exponent > 22) return null;
+        // both exactly representable, thus a correctly rounded result
+        double d = exponent < 0 ? significand / POWERS_OF_TEN[-exponent] : significand * POWERS_OF_TEN[exponent];
+        return new JsonNumber(negative ? -d : d, options);
+    }
+
     @Override
     public JsonNumber getElem() {
+        if (this.isHex) return this.hexNumber();
+        NumberParseOptions options = new NumberParseOptions();
+        if (this.foundE) options.setFormat(NumberParseOptions.NumberFormat.SCIENTIFIC);
+        boolean floating = this.foundE || this.foundDecimal;
+        if (!floating || !this.parser.options.exactDecimal) {
+            int e = (this.negativeExponent ? -this.exponent : this.exponent) - this.fractionDigits;
+            JsonNumber number = fastNumber(this.negative, this.significand, this.digits, e, floating, options);
+            if (number != null) return number;
+        }
         String s;
         try {
             s = String.valueOf(this.parser.getPrecedents(this.charCount))+this.parser.getActual();
         } catch (IndexOutOfBoundsException e) {
             s = String.valueOf(this.parser.getPrecedents(this.charCount));
         }
-        NumberParseOptions options = new NumberParseOptions();
-        if (this.isHex) {
-            s = this.hexString(s);
-            options.setFormat(NumberParseOptions.NumberFormat.HEXADECIMAL);
-        }
-        if (this.foundE) {
-            options.setFormat(NumberParseOptions.NumberFormat.SCIENTIFIC);
-            return new JsonNumber(new BigDecimal(s), options);
-        } else if (this.foundDecimal) return JsonNumber.fromFloatString(s, options);
+        if (this.foundE) return new JsonNumber(new BigDecimal(s), options);
+        else if (this.foundDecimal) return JsonNumber.fromFloatString(s, options);
         else return JsonNumber.fromIntegerString(s, options);
     }
 }
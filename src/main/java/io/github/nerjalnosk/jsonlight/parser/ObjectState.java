@@ -23,10 +23,22 @@ public class ObjectState extends AbstractState {
     private boolean trailingIterator = false;
     private int trailingIndex = 0;
     private String key = null;
-    private final JsonObject object = new JsonObject(new ObjectParseOptions(true));
+    private final JsonObject object;
 
     public ObjectState(StringParser stringParser, ParserState olderState) {
+        this(stringParser, olderState, new JsonObject(new ObjectParseOptions(true)));
+    }
+
+    /**
+     * Instantiates a state filling the
+     * specified object.
+     * @param stringParser the state's parser
+     * @param olderState the parent state
+     * @param object the object to fill
+     */
+    ObjectState(StringParser stringParser, ParserState olderState, JsonObject object) {
         super(stringParser, olderState);
+        this.object = object;
     }
 
     /**
@@ -58,7 +70,7 @@ public class ObjectState extends AbstractState {
             else break;
             this.parser.forward();
         }
-        this.key = s.toString();
+        this.key = this.parser.internKey(s);
         this.lookForKey = false;
         this.requiresIterator = false;
         this.lookForAttributive = true;
@@ -132,7 +144,7 @@ public class ObjectState extends AbstractState {
         boolean singleQuote = this.parser.getActual() == '\'';
         if (trailingIterator) this.trailingError();
         else if (this.canAcceptKey() || this.lookForValue)
-            this.parser.switchState(new StringState(this.parser, this, singleQuote));
+            this.parser.switchState(new StringState(this.parser, this, singleQuote, !this.lookForValue));
         else this.error("unexpected string initializer '\"'");
     }
 
@@ -0,0 +1,152 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.elements.JsonArray;
+import io.github.nerjalnosk.jsonlight.elements.JsonElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static io.github.nerjalnosk.jsonlight.JsonError.*;
+
+/**
+ * <p>A parser for sources whose root element is
+ * a large array of independent elements,
+ * parsing slices of said array in parallel.
+ * </p>
+ * <p>A structural pre-scan first locates the
+ * array's top-level commas, strings, comments
+ * and escapes being respected. The array is
+ * then cut into slices at these commas, each
+ * slice being parsed by its own
+ * {@link StringParser} on a
+ * {@link ForkJoinPool}, and the parsed slices
+ * are stitched back in order.
+ * </p>
+ * <p>The source is parsed sequentially instead
+ * if it is too small to benefit from it, if
+ * its root element is not an array, if
+ * anything but whitespaces surrounds said
+ * array, or if it holds circular structures'
+ * IDs, as references may cross slices.<br>
+ * Parsing errors positions are relative to
+ * the slice they are raised in.
+ * </p>
+ * @author nerjal
+ */
+public class ParallelArrayParser {
+    /**
+     * Sources smaller than this number of chars
+     * are parsed sequentially.
+     */
+    public static final int MIN_PARALLEL_SIZE = 1 << 16;
+    private static final int MIN_SLICE_SIZE = 1 << 14;
+    private final ParserOptions options;
+    private final ForkJoinPool pool;
+
+    public ParallelArrayParser() {
+        this(new ParserOptions.Builder().json5().classic().build(), ForkJoinPool.commonPool());
+    }
+
+    public ParallelArrayParser(ParserOptions options) {
+        this(options, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates a parser running its slices
+     * on the specified pool.
+     * @param options the parsing options
+     * @param pool the pool to parse slices on
+     */
+    public ParallelArrayParser(ParserOptions options, ForkJoinPool pool) {
+        this.options = options;
+        this.pool = pool;
+    }
+
+    /**
+     * Parses the specified string, in parallel if
+     * its root element is an array and it is
+     * large enough.
+     * @param s the string to be parsed
+     * @return the {@link JsonElement}
+     *         corresponding to the specified
+     *         string
+     * @throws JsonParseException if any
+     *         exception is raised while
+     *         trying to parse the string
+     */
+    public JsonElement parse(String s) throws JsonParseException {
+        if (s.length() < MIN_PARALLEL_SIZE) return this.parseSequential(s);
+        List<Integer> cuts = this.scan(s);
+        if (cuts == null || cuts.size() < 3) return this.parseSequential(s);
+
+        List<Callable<JsonArray>> tasks = new ArrayList<>();
+        for (int i = 1; i < cuts.size(); i++) {
+            String slice = "[" + s.substring(cuts.get(i - 1) + 1, cuts.get(i)) + "]";
+            tasks.add(() -> new StringParser(slice, this.options).parse().getAsJsonArray());
+        }
+        JsonArray array = new JsonArray();
+        try {
+            for (Future<JsonArray> future : this.pool.invokeAll(tasks)) {
+                array.pushAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonParseException(e);
+        } catch (ExecutionException e) {
+            // the pool may wrap checked exceptions in runtime ones
+            for (Throwable t = e.getCause(); t != null; t = t.getCause()) {
+                if (t instanceof JsonParseException) throw (JsonParseException) t;
+            }
+            throw new JsonParseException(e);
+        }
+        return array;
+    }
+
+    private JsonElement parseSequential(String s) throws JsonParseException {
+        return new StringParser(s, this.options).parse();
+    }
+
+    /**
+     * Scans the specified string for its root
+     * array's slices' bounds.
+     * @return the indexes of the root array's
+     *         opening bracket, of the commas
+     *         slices are cut at, and of the
+     *         closing bracket, or {@code null}
+     *         if the source cannot be parsed
+     *         in parallel.
+     */
+    private List<Integer> scan(String s) {
+        int length = s.length();
+        int sliceSize = Math.max(MIN_SLICE_SIZE, length / (this.pool.getParallelism() * 4));
+        StructuralScanner scanner = new StructuralScanner();
+        List<Integer> cuts = new ArrayList<>();
+        boolean closed = false;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (scanner.inCode()) {
+                if (c == '<') return null;
+                if (closed) {
+                    if (Character.isWhitespace(c)) continue;
+                    return null;
+                }
+                if (cuts.isEmpty()) {
+                    if (c == '[') cuts.add(i);
+                    else if (!Character.isWhitespace(c)) return null;
+                } else if (c == ',' && scanner.getDepth() == 1 && i - cuts.get(cuts.size() - 1) >= sliceSize) {
+                    cuts.add(i);
+                }
+            }
+            int flags = scanner.next(c);
+            if ((flags & StructuralScanner.ENDED) != 0) {
+                cuts.add(i);
+                closed = true;
+            }
+        }
+        return closed ? cuts : null;
+    }
+}
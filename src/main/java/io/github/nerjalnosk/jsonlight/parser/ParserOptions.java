@@ -66,14 +66,34 @@ public class ParserOptions {
      * instances of this character.
      */
     public final boolean parseUnicode;
+    /**
+     * Whether to parse all floating numbers as
+     * exact decimals, rather than as doubles.
+     * <p>
+     * Integers fitting in a {@code long} and
+     * floating numbers which can be parsed as
+     * doubles without loss are otherwise
+     * parsed without going through
+     * {@link java.math.BigDecimal} values.
+     */
+    public final boolean exactDecimal;
+    /**
+     * The object keys cache shared by all parsers
+     * using these options, or {@code null} for
+     * each parser to use its own.
+     */
+    public final KeyCache keyCache;
 
-    private ParserOptions(boolean json5, boolean circular, boolean autoClose, boolean lineIter, boolean rootComment, boolean parseUnicode) {
+    private ParserOptions(boolean json5, boolean circular, boolean autoClose, boolean lineIter, boolean rootComment, boolean parseUnicode,
+                          boolean exactDecimal, KeyCache keyCache) {
         this.json5 = json5;
         this.circular = circular;
         this.autoClose = autoClose;
         this.lineIter = lineIter;
         this.rootComment = rootComment;
         this.parseUnicode = parseUnicode;
+        this.exactDecimal = exactDecimal;
+        this.keyCache = keyCache;
     }
 
     /**
@@ -86,6 +106,8 @@ public class ParserOptions {
         boolean line;
         boolean rootC;
         boolean uni;
+        boolean exact;
+        KeyCache cache;
 
         /**
          * Default builder instance, for generic
@@ -102,7 +124,7 @@ public class ParserOptions {
          * @return the configured parser options.
          */
         public ParserOptions build() {
-            return new ParserOptions(this.j5, this.circ, this.close, this.line, this.rootC, uni);
+            return new ParserOptions(this.j5, this.circ, this.close, this.line, this.rootC, this.uni, this.exact, this.cache);
         }
 
         /**
@@ -278,5 +300,44 @@ public class ParserOptions {
             this.uni = false;
             return this;
         }
+
+        /**
+         * Sets the options to be built to
+         * parse floating numbers as exact
+         * decimals.
+         * @return this
+         * @see ParserOptions#exactDecimal
+         */
+        public Builder exactDecimal() {
+            this.exact = true;
+            return this;
+        }
+
+        /**
+         * Sets the options to be built to
+         * parse floating numbers as doubles
+         * whenever it is lossless.
+         * @return this
+         * @see ParserOptions#exactDecimal
+         */
+        public Builder noExactDecimal() {
+            this.exact = false;
+            return this;
+        }
+
+        /**
+         * Sets the options to be built to share
+         * the specified object keys cache across
+         * all parsers using them.
+         * @param cache the cache to share, or
+         *              {@code null} for each
+         *              parser to use its own
+         * @return this
+         * @see ParserOptions#keyCache
+         */
+        public Builder keyCache(KeyCache cache) {
+            this.cache = cache;
+            return this;
+        }
     }
 }
@@ -38,6 +38,7 @@ public class StringParser {
     protected JsonParseException storedErr = null;
     private Consumer<String> logReceiver = System.err::println;
     private final Map<Integer, JsonElement> idMap = new HashMap<>();
+    private KeyCache keyCache = null;
 
     /**
      * Empty StringParser.<br>
@@ -93,6 +94,20 @@ public class StringParser {
         this.lineIndex++;
     }
 
+    /**
+     * Moves the parser's cursor index back of
+     * the specified offset, without affecting
+     * the line index.<br>
+     * Used for superclasses re-basing their
+     * source's window, while keeping
+     * {@code index} private.
+     * @param delta the offset to remove from
+     *              the cursor index
+     */
+    protected final void rebaseIndex(int delta) {
+        this.index -= delta;
+    }
+
     /**
      * Sets or changes the string to be
      * parsed for the specified one.<br>
@@ -176,6 +191,7 @@ public class StringParser {
             if (this.index >= this.readStr.length()) {
                 while (!this.state.isFinal()) {
                     this.state.read(Character.MIN_VALUE);
+                    if (this.isErrored) throw this.storedErr;
                 }
                 this.stop = true;
             }
@@ -366,6 +382,42 @@ public class StringParser {
         return Optional.ofNullable(this.idMap.getOrDefault(i, null));
     }
 
+    /**
+     * Forgets all mapped IDs.<br>
+     * Used for superclasses parsing multiple
+     * root elements, IDs being local to their
+     * root element.
+     */
+    protected final void clearIds() {
+        this.idMap.clear();
+    }
+
+    // keys
+
+    /**
+     * Returns the object keys cache used by the
+     * parser, either shared through its options
+     * or its own one.
+     * @return the parser's keys cache
+     */
+    public final KeyCache getKeyCache() {
+        if (this.keyCache == null) {
+            this.keyCache = this.options.keyCache != null ? this.options.keyCache : new KeyCache();
+        }
+        return this.keyCache;
+    }
+
+    /**
+     * Returns the canonical instance of the
+     * object key made of the specified chars.
+     * @param chars the key's chars
+     * @return the canonical key
+     * @see KeyCache
+     */
+    public final String internKey(CharSequence chars) {
+        return this.getKeyCache().intern(chars);
+    }
+
     // errors
 
     public String getParserDataKey() {
@@ -22,68 +22,65 @@ import java.util.Map;
 public class StringState extends AbstractState {
     private boolean preIsBackslash = false;
     private final boolean isSingleQuoteString;
+    private final boolean isKey;
     private final StringBuilder val = new StringBuilder();
     private final Map<String, Integer> unicoded = new HashMap<>();
 
     public StringState(StringParser stringParser, ParserState olderState, boolean isSingleQuote) {
+        this(stringParser, olderState, isSingleQuote, false);
+    }
+
+    /**
+     * Instantiates a string state, whose value
+     * is canonicalized through the parser's
+     * keys cache if it is an object key.
+     * @param stringParser the state's parser
+     * @param olderState the parent state
+     * @param isSingleQuote whether the string
+     *                      is single-quoted
+     * @param isKey whether the string is an
+     *              object key
+     */
+    public StringState(StringParser stringParser, ParserState olderState, boolean isSingleQuote, boolean isKey) {
         super(stringParser, olderState);
         if (isSingleQuote) {
             this.disabledError("single-quoted strings (Json5)");
         }
         this.isSingleQuoteString = isSingleQuote;
+        this.isKey = isKey;
     }
 
     private void unicodeError(char c) {
         this.error("Invalid hexadecimal character '"+c+"' in unicode code");
     }
 
+    /**
+     * Reads the 4 hex digits of an escaped unicode
+     * code, remembering the char as escaped.
+     */
     private void readUnicode() {
         if (!this.parser.options.parseUnicode) {
             this.disabledError("unicode parsing");
-        }
-        char c1 = this.parser.getNext();
-        if (!JsonParser.isHex(c1)) {
-            this.unicodeError(c1);
             return;
         }
-        int i1 = JsonParser.hexValue(c1);
-        int code = i1;
-        int size = 4;
-        int i = 1;
-        if (i1 == 14) {
-            // case 1110xxxx
-            size = 6;
-        } else if (i1 == 15) {
-            // case 11110xxx
-            size = 8;
-            char c2 = this.parser.getNext();
-            int i2 = JsonParser.hexValue(c2);
-            if (i2 == -1 || (i2 >> 3) != 0) {
-                this.unicodeError(c2);
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            char c;
+            try {
+                c = this.parser.getNext();
+            } catch (IndexOutOfBoundsException e) {
+                this.error("unclosed unicode code");
                 return;
             }
-            code <<= 4;
-            code += i2;
-            i = 2;
-        } else if ((i1 >> 1) != 6) {
-            // case 110xxxxx
-            this.unicodeError(c1);
-            return;
-        }
-        while (i < size) {
-            char c = this.parser.getNext();
             int v = JsonParser.hexValue(c);
-            boolean b = (i % 2) == 0; // even char (e.g. capitals: XXXXxxxx XXXXxxxx)
-            if (v == -1 || (b && (v >> 2) != 2)) {
-                // check for 10xxxxxx on post-init code characters
+            if (v == -1) {
                 this.unicodeError(c);
                 return;
             }
-            code <<= 4;
-            code += v;
-            i++;
+            this.parser.forward();
+            code = code << 4 | v;
         }
-        char[] c = Character.toChars(code);
+        char c = (char) code;
         this.unicoded.putIfAbsent(String.valueOf(c), code);
         this.val.append(c);
     }
@@ -118,6 +115,14 @@ public class StringState extends AbstractState {
                 case 'b':
                     this.val.append('\b'); // backspace
                     break;
+                case 'f':
+                    this.val.append('\f'); // form feed
+                    break;
+                case '"':
+                case '\'':
+                case '/':
+                    this.val.append(c); // escaped quote or slash
+                    break;
                 case 'n':
                     this.val.append('\n'); // newline
                     break;
@@ -147,7 +152,7 @@ public class StringState extends AbstractState {
 
     @Override
     public JsonElement getElem() {
-        return new JsonString(val.toString(),
+        return new JsonString(this.isKey ? this.parser.internKey(this.val) : this.val.toString(),
                 new StringParseOptions(isSingleQuoteString ? StringParseOptions.QuoteFormat.SINGLE_QUOTES : StringParseOptions.QuoteFormat.DOUBLE_QUOTES)
                         .withUnicoded(this.unicoded));
     }
@@ -0,0 +1,154 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * <p>The first stage of the {@link IndexedParser},
+ * indexing the positions of a UTF-8 source's
+ * structural characters.
+ * </p>
+ * <p>The source is scanned 8 bytes at a time, each
+ * word being compared against all structural
+ * characters at once with SWAR (SIMD within a
+ * register) bit tricks. Only matching bytes are
+ * then looked at one by one, to skip those
+ * within strings and escaped quotes.<br>
+ * The index holds the positions of braces,
+ * brackets, commas and colons outside of
+ * strings, as well as of the opening and
+ * closing quotes of each string.
+ * </p>
+ * <p>Sources holding comments, IDs, single
+ * quotes or unclosed strings are not
+ * indexed, and are left to the
+ * {@link ByteParser}.
+ * </p>
+ * @author nerjal
+ */
+final class StructuralIndex {
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long ONES = 0x0101010101010101L;
+    // '[' and ']' only differ from '{' and '}' by the 0x20 bit
+    private static final long CASE = ONES * 0x20;
+    private static final long OPEN = ONES * '{';
+    private static final long CLOSE = ONES * '}';
+    private static final long COMMA = ONES * ',';
+    private static final long COLON = ONES * ':';
+    private static final long QUOTE = ONES * '"';
+    private static final long BACKSLASH = ONES * '\\';
+    private static final long SLASH = ONES * '/';
+    private static final long ID = ONES * '<';
+    private static final long APOSTROPHE = ONES * '\'';
+
+    private final byte[] bytes;
+    private int[] positions;
+    private int count = 0;
+    private boolean inString = false;
+    private int escaped = -1;
+
+    private StructuralIndex(byte[] bytes, int capacity) {
+        this.bytes = bytes;
+        this.positions = new int[Math.max(16, capacity)];
+    }
+
+    /**
+     * Indexes the specified range of bytes.
+     * @param bytes the UTF-8 source
+     * @param from the range's first index
+     * @param to the range's end index, exclusive
+     * @return the source's index, or {@code null}
+     *         if it cannot be indexed
+     */
+    static StructuralIndex build(byte[] bytes, int from, int to) {
+        StructuralIndex index = new StructuralIndex(bytes, (to - from) >>> 3);
+        ByteBuffer words = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            if (!index.scan(words.getLong(i), i)) return null;
+        }
+        if (i < to) {
+            // zero padding never matches
+            long word = 0;
+            for (int j = to - 1; j >= i; j--) word = (word << 8) | (bytes[j] & 0xFF);
+            if (!index.scan(word, i)) return null;
+        }
+        return index.inString ? null : index;
+    }
+
+    /**
+     * Returns a word with the high bit of each
+     * byte set if said byte is zero, and all
+     * other bits cleared.
+     */
+    private static long zeroBytes(long word) {
+        return ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+    }
+
+    private static long matches(long word, long pattern) {
+        return zeroBytes(word ^ pattern);
+    }
+
+    private boolean scan(long word, int base) {
+        long folded = word | CASE;
+        long mask = matches(folded, OPEN) | matches(folded, CLOSE) | matches(word, COMMA) | matches(word, COLON)
+                | matches(word, QUOTE) | matches(word, BACKSLASH) | matches(word, SLASH) | matches(word, ID)
+                | matches(word, APOSTROPHE);
+        while (mask != 0) {
+            if (!this.candidate(base + (Long.numberOfTrailingZeros(mask) >>> 3))) return false;
+            mask &= mask - 1;
+        }
+        return true;
+    }
+
+    private boolean candidate(int i) {
+        byte b = this.bytes[i];
+        if (this.inString) {
+            if (i == this.escaped) return true;
+            if (b == '\\') this.escaped = i + 1;
+            else if (b == '"') {
+                this.inString = false;
+                this.add(i);
+            }
+            return true;
+        }
+        switch (b) {
+            case '"':
+                this.inString = true;
+                this.add(i);
+                return true;
+            case '\\':
+            case '/':
+            case '<':
+            case '\'':
+                return false;
+            default:
+                this.add(i);
+                return true;
+        }
+    }
+
+    private void add(int i) {
+        if (this.count == this.positions.length) this.positions = Arrays.copyOf(this.positions, this.count << 1);
+        this.positions[this.count++] = i;
+    }
+
+    /**
+     * Returns the number of indexed positions.
+     * @return the index's size
+     */
+    int size() {
+        return this.count;
+    }
+
+    /**
+     * Returns the specified indexed position.
+     * @param i the position's rank
+     * @return the source's byte index of the
+     *         position
+     */
+    int get(int i) {
+        return this.positions[i];
+    }
+}
@@ -0,0 +1,223 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+/**
+ * <p>A resumable scanner, locating the bounds
+ * of root elements in a JSON5 source fed one
+ * char at a time, without parsing them.
+ * </p>
+ * <p>Only nesting, strings, comments and IDs are
+ * tracked, so that structural chars within
+ * strings or comments are ignored. The
+ * elements' validity is left to the parser
+ * they are then handed over to.<br>
+ * Comments preceding a root element are
+ * considered part of it, as root comments.
+ * </p>
+ * @author nerjal
+ */
+final class StructuralScanner {
+    /**
+     * The previous root element ended right
+     * before the scanned char.
+     */
+    static final int ENDED_BEFORE = 1;
+    /**
+     * A root element starts with the scanned
+     * char.
+     */
+    static final int STARTED = 2;
+    /**
+     * A root element ends with the scanned
+     * char.
+     */
+    static final int ENDED = 4;
+
+    private static final int CODE = 0;
+    private static final int SLASH = 1;
+    private static final int LINE_COMMENT = 2;
+    private static final int BLOCK_COMMENT = 3;
+    private static final int BLOCK_COMMENT_STAR = 4;
+    private static final int STRING = 5;
+    private static final int STRING_ESCAPE = 6;
+    private static final int ID = 7;
+
+    private int mode = CODE;
+    private int depth = 0;
+    private char quote;
+    private boolean open = false;
+    private boolean value = false;
+    private boolean scalar = false;
+    private boolean idRef = false;
+
+    /**
+     * Scans the specified char.
+     * @param c the next char of the source
+     * @return the root element bounds found with
+     *         the char, as a combination of
+     *         {@link #ENDED_BEFORE},
+     *         {@link #STARTED} and {@link #ENDED}
+     *         flags
+     */
+    int next(char c) {
+        switch (this.mode) {
+            case SLASH:
+                if (c == '/') {
+                    this.mode = LINE_COMMENT;
+                    return 0;
+                }
+                if (c == '*') {
+                    this.mode = BLOCK_COMMENT;
+                    return 0;
+                }
+                // malformed comment, left for the parser to raise
+                this.mode = CODE;
+                break;
+            case LINE_COMMENT:
+                if (c == '\n' || c == '\r') this.mode = CODE;
+                return 0;
+            case BLOCK_COMMENT:
+                if (c == '*') this.mode = BLOCK_COMMENT_STAR;
+                return 0;
+            case BLOCK_COMMENT_STAR:
+                if (c == '/') this.mode = CODE;
+                else if (c != '*') this.mode = BLOCK_COMMENT;
+                return 0;
+            case STRING:
+                if (c == '\\') this.mode = STRING_ESCAPE;
+                else if (c == this.quote) {
+                    this.mode = CODE;
+                    return this.depth == 0 ? this.end() : 0;
+                }
+                return 0;
+            case STRING_ESCAPE:
+                this.mode = STRING;
+                return 0;
+            case ID:
+                if (c == '#') this.idRef = true;
+                else if (c == '>') {
+                    this.mode = CODE;
+                    return this.depth == 0 && this.idRef ? this.end() : 0;
+                }
+                return 0;
+            default:
+        }
+        int flags = 0;
+        if (this.scalar) {
+            if (!isScalarEnd(c)) return 0;
+            this.scalar = false;
+            this.open = false;
+            flags = ENDED_BEFORE;
+        }
+        if (Character.isWhitespace(c) || c == '\uFEFF') return flags;
+        if (!this.open) {
+            this.open = true;
+            this.value = false;
+            flags |= STARTED;
+        }
+        switch (c) {
+            case '/':
+                this.mode = SLASH;
+                return flags;
+            case '"':
+            case '\'':
+                this.value = true;
+                this.quote = c;
+                this.mode = STRING;
+                return flags;
+            case '{':
+            case '[':
+                this.value = true;
+                this.depth++;
+                return flags;
+            case '}':
+            case ']':
+                this.value = true;
+                if (--this.depth <= 0) {
+                    this.depth = 0;
+                    flags |= this.end();
+                }
+                return flags;
+            case '<':
+                this.mode = ID;
+                this.idRef = false;
+                return flags;
+            default:
+                this.value = true;
+                if (this.depth == 0) this.scalar = true;
+                return flags;
+        }
+    }
+
+    private int end() {
+        this.open = false;
+        return ENDED;
+    }
+
+    private static boolean isScalarEnd(char c) {
+        switch (c) {
+            case '{':
+            case '}':
+            case '[':
+            case ']':
+            case '"':
+            case '\'':
+            case ',':
+            case ':':
+            case '/':
+            case '<':
+                return true;
+            default:
+                return Character.isWhitespace(c) || c == '\uFEFF';
+        }
+    }
+
+    /**
+     * Returns whether a root element is being
+     * scanned, including its preceding
+     * comments.
+     * @return whether a root element is open
+     */
+    boolean isOpen() {
+        return this.open;
+    }
+
+    /**
+     * Returns whether the open root element
+     * holds a value, and not only comments.
+     * @return whether the open root element
+     *         holds a value
+     */
+    boolean hasValue() {
+        return this.open && this.value;
+    }
+
+    /**
+     * Returns the current nesting depth.
+     * @return the current nesting depth
+     */
+    int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Returns whether the last scanned char is
+     * part of code, rather than of a string,
+     * comment or ID.
+     * @return whether the scanner is in code
+     */
+    boolean inCode() {
+        return this.mode == CODE;
+    }
+
+    /**
+     * Resets the scanner, for a new source.
+     */
+    void reset() {
+        this.mode = CODE;
+        this.depth = 0;
+        this.open = false;
+        this.value = false;
+        this.scalar = false;
+        this.idRef = false;
+    }
+}
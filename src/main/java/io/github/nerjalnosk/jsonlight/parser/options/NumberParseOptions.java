@@ -4,6 +4,7 @@ import io.github.nerjalnosk.jsonlight.elements.JsonNumber;
 
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The formatting options of a JsonNumber, used upon stringifying the
@@ -17,13 +18,22 @@ import java.text.DecimalFormat;
  * <i>Warning!</i> Although it is set to parse to an integer by default,
  * the stringified JsonNumber will only be parsed as so if it has an
  * integer value. This won't force the parsed value to change.
+ * <p>
+ * Stringification reads the set through an immutable {@link Plan},
+ * cached per settings combination, so that sets may be shared across
+ * threads.
  * @author Nerjal Nosk
  */
 public class NumberParseOptions extends AbstractParseOptions<JsonNumber> {
+    // plans with more decimals are not cached, unless unbounded
+    private static final int MAX_CACHED_DECIMALS = 64;
+    private static final ConcurrentHashMap<Long, Plan> PLANS = new ConcurrentHashMap<>();
     private NumberFormat format;
     private boolean floating;
     private int decimals;
     private boolean big;
+    // the current settings' plan, dropped by the setters
+    private transient volatile Plan plan;
 
     /**
      * Constructs a {@link JsonNumber} parsing
@@ -130,6 +140,7 @@ public class NumberParseOptions extends AbstractParseOptions<JsonNumber> {
      */
     public void setFloating() {
         this.floating = true;
+        this.plan = null;
         ping();
     }
 
@@ -138,6 +149,7 @@ public class NumberParseOptions extends AbstractParseOptions<JsonNumber> {
      */
     public void setInteger() {
         this.floating = false;
+        this.plan = null;
         ping();
     }
 
@@ -147,6 +159,7 @@ public class NumberParseOptions extends AbstractParseOptions<JsonNumber> {
      */
     public void setDecimals(int i) {
         this.decimals = i;
+        this.plan = null;
         ping();
     }
 
@@ -193,22 +206,39 @@ public class NumberParseOptions extends AbstractParseOptions<JsonNumber> {
      */
     public void setFormat(NumberFormat format) {
         this.format = format;
+        this.plan = null;
         ping();
     }
 
+    /**
+     * Returns a new format matching the option set.
+     * The returned format is the caller's own, and may thus be changed
+     * freely.
+     * @return a format matching the option set
+     */
     public DecimalFormat getFormat() {
-        String s;
-        if (this.format == NumberFormat.SCIENTIFIC) {
-            s = this.floating ? "0.0E0" : "0E0";
+        return this.getPlan().newFormat();
+    }
+
+    /**
+     * Returns the immutable plan matching the option set's current
+     * settings.
+     * @return the option set's plan
+     */
+    public Plan getPlan() {
+        Plan plan = this.plan;
+        if (plan != null) return plan;
+        NumberFormat format = this.format;
+        boolean floating = this.floating;
+        int decimals = this.decimals;
+        if (decimals > MAX_CACHED_DECIMALS && decimals != Integer.MAX_VALUE || decimals < 0) {
+            plan = new Plan(format, floating, decimals);
         } else {
-            s = this.floating ? "0.0" : "0";
+            long key = (long) decimals << 3 | format.ordinal() << 1 | (floating ? 1 : 0);
+            plan = PLANS.computeIfAbsent(key, k -> new Plan(format, floating, decimals));
         }
-        DecimalFormat f = new DecimalFormat(s);
-        if (this.floating) {
-            f.setMaximumFractionDigits(this.decimals);
-        }
-        f.setRoundingMode(RoundingMode.HALF_UP);
-        return f;
+        this.plan = plan;
+        return plan;
     }
 
     /**
@@ -221,4 +251,80 @@ public class NumberParseOptions extends AbstractParseOptions<JsonNumber> {
         SCIENTIFIC,
         HEXADECIMAL
     }
+
+    /**
+     * An immutable snapshot of a {@link NumberParseOptions} set's
+     * settings, along with its format, compiled on first use.
+     * Plans may be used from many threads at once.
+     */
+    public static final class Plan {
+        private final NumberFormat format;
+        private final boolean floating;
+        private final int decimals;
+        private volatile DecimalFormat prototype;
+
+        private Plan(NumberFormat format, boolean floating, int decimals) {
+            this.format = format;
+            this.floating = floating;
+            this.decimals = decimals;
+        }
+
+        private DecimalFormat prototype() {
+            DecimalFormat prototype = this.prototype;
+            if (prototype != null) return prototype;
+            String s;
+            if (format == NumberFormat.SCIENTIFIC) {
+                s = floating ? "0.0E0" : "0E0";
+            } else {
+                s = floating ? "0.0" : "0";
+            }
+            DecimalFormat f = new DecimalFormat(s);
+            if (floating) {
+                f.setMaximumFractionDigits(decimals);
+            }
+            f.setRoundingMode(RoundingMode.HALF_UP);
+            // racing threads compile equal formats
+            this.prototype = f;
+            return f;
+        }
+
+        /**
+         * @return Whether the plan is set to parse to a float
+         */
+        public boolean isFloating() {
+            return this.floating;
+        }
+
+        /**
+         * @return the number of decimal to be stringified
+         */
+        public int getDecimals() {
+            return this.decimals;
+        }
+
+        /**
+         * @return Whether the plan is set to parse using scientific
+         * notation
+         */
+        public boolean usesScientific() {
+            return this.format == NumberFormat.SCIENTIFIC;
+        }
+
+        /**
+         * @return Whether the plan is set to parse to a hexadecimal
+         * number
+         */
+        public boolean usesHexadecimal() {
+            return this.format == NumberFormat.HEXADECIMAL;
+        }
+
+        /**
+         * Returns a new copy of the plan's format, formats not being
+         * thread-safe.
+         * @return a copy of the plan's format
+         */
+        public DecimalFormat newFormat() {
+            return (DecimalFormat) this.prototype().clone();
+        }
+    }
 }
@@ -22,6 +22,7 @@ public class ObjectParseOptions extends AbstractParseOptions<JsonObject> {
     private boolean circular;
     private boolean lineBreak;
     private boolean inLineSingle;
+    private boolean inline;
 
     /**
      * Instantiates new double-quoted keys and
@@ -149,7 +150,9 @@ public class ObjectParseOptions extends AbstractParseOptions<JsonObject> {
 
     @Override
     public ObjectParseOptions clone() {
-        return new ObjectParseOptions(this.format, this.ordered, this.circular, this.lineBreak, this.inLineSingle);
+        ObjectParseOptions clone = new ObjectParseOptions(this.format, this.ordered, this.circular, this.lineBreak, this.inLineSingle);
+        clone.inline = this.inline;
+        return clone;
     }
 
     /**
@@ -266,6 +269,27 @@ public class ObjectParseOptions extends AbstractParseOptions<JsonObject> {
         return this.inLineSingle;
     }
 
+    /**
+     * Sets whether the object should be stringified with all
+     * its entries in a single line. Line comments still end
+     * their line.
+     * @param b the new inline setting value.
+     */
+    public void allInOneLine(boolean b) {
+        this.inline = b;
+        ping();
+    }
+
+    /**
+     * Returns whether the object should be stringified with
+     * all its entries in a single line.
+     * @return whether all the object's entries shall be in
+     *         one line
+     */
+    public boolean isAllInOneLine() {
+        return this.inline;
+    }
+
     /**
      * Different available keys stringification formats
      * for {@link JsonObject}
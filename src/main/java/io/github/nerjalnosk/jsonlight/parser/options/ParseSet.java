@@ -4,6 +4,8 @@ import io.github.nerjalnosk.jsonlight.JsonParser;
 import io.github.nerjalnosk.jsonlight.elements.JsonElement;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Generic class to manage the
@@ -13,6 +15,7 @@ import java.util.HashMap;
  */
 public final class ParseSet {
     private final HashMap<Class<? extends JsonElement>, AbstractParseOptions<?>> map = new HashMap<>();
+    private final Set<Class<? extends JsonElement>> forced = new HashSet<>();
 
     /**
      * Adds the default parseOptions for the specified
@@ -32,9 +35,68 @@ public final class ParseSet {
         return true;
     }
 
+    /**
+     * Sets the parseOptions for the specified JsonElement
+     * class for this parsing set, replacing any already
+     * set.<br>
+     * Forced options prevail over the elements' own
+     * changed options, for the classes supporting it.
+     * @param elementClass the class to set the options
+     *                     for
+     * @param options the options to force for this set
+     *                for the specified class
+     * @param <T> the {@link JsonElement} class to link
+     *            to the specified options
+     */
+    public <T extends JsonElement> void forceOptions(Class<T> elementClass, AbstractParseOptions<T> options) {
+        map.put(elementClass, options);
+        forced.add(elementClass);
+    }
+
+    /**
+     * Returns the options set for the specified class, or
+     * else for its closest superclass having some.
+     * @param elementClass the class to get the options for
+     * @return the options set for the specified class, or
+     *         {@code null} if there are none
+     * @param <T> the {@link JsonElement} class linked to
+     *            the options
+     */
     @SuppressWarnings("unchecked")
     public <T extends JsonElement> AbstractParseOptions<T> getOptions(Class<T> elementClass) {
-        if (!map.containsKey(elementClass)) return null;
-        return (AbstractParseOptions<T>) map.get(elementClass);
+        Class<?> c = elementClass;
+        while (c != null && c != JsonElement.class) {
+            if (map.containsKey(c)) return (AbstractParseOptions<T>) map.get(c);
+            c = c.getSuperclass();
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the options returned for the specified
+     * class were forced.
+     * @param elementClass the class to check the options of
+     * @return whether the class' options were forced
+     * @see #forceOptions
+     */
+    public boolean isForced(Class<? extends JsonElement> elementClass) {
+        Class<?> c = elementClass;
+        while (c != null && c != JsonElement.class) {
+            if (map.containsKey(c)) return forced.contains(c);
+            c = c.getSuperclass();
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of this set, holding the same
+     * options.
+     * @return a copy of this set
+     */
+    public ParseSet copy() {
+        ParseSet copy = new ParseSet();
+        copy.map.putAll(this.map);
+        copy.forced.addAll(this.forced);
+        return copy;
     }
 }
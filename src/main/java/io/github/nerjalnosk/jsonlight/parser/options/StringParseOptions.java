@@ -29,6 +29,8 @@ import java.util.Map;
 public class StringParseOptions extends AbstractParseOptions<JsonString> {
     private QuoteFormat format;
     private final Map<String, Integer> unicodedCodes = new HashMap<>();
+    // sorted single unicoded chars, as (char << 32 | code), built on demand
+    private volatile long[] unicodedChars = null;
 
     /**
      * Instantiates new string
@@ -116,7 +118,10 @@ public class StringParseOptions extends AbstractParseOptions<JsonString> {
      */
     public StringParseOptions withUnicoded(Map<String, Integer> unicodedCodes) {
         unicodedCodes.forEach(this.unicodedCodes::putIfAbsent);
-        if (!unicodedCodes.isEmpty()) ping();
+        if (!unicodedCodes.isEmpty()) {
+            this.unicodedChars = null;
+            ping();
+        }
         return this;
     }
 
@@ -128,8 +133,40 @@ public class StringParseOptions extends AbstractParseOptions<JsonString> {
         return this.unicodedCodes.getOrDefault(s, -1);
     }
 
+    /**
+     * Returns the unicode code the specified char
+     * was parsed from, looked up in a compact
+     * sorted table rather than the codes map.
+     * @param c the char to look up
+     * @return the char's unicode code, or
+     *         {@code -1} if it was not parsed
+     *         from one
+     */
+    public int unicodedCode(char c) {
+        long[] chars = this.unicodedChars;
+        if (chars == null) {
+            chars = this.unicodedCodes.entrySet().stream()
+                    .filter(e -> e.getKey().length() == 1)
+                    .mapToLong(e -> (long) e.getKey().charAt(0) << 32 | e.getValue())
+                    .sorted()
+                    .toArray();
+            this.unicodedChars = chars;
+        }
+        int low = 0;
+        int high = chars.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int key = (int) (chars[mid] >>> 32);
+            if (key < c) low = mid + 1;
+            else if (key > c) high = mid - 1;
+            else return (int) chars[mid];
+        }
+        return -1;
+    }
+
     public void addUnicodedCode(String s, int i) {
         if (i < 0) return;
+        this.unicodedChars = null;
         if (this.unicodedCodes.putIfAbsent(s, i) != null) ping();
     }
 
@@ -1,15 +1,42 @@
 package io.github.nerjalnosk.jsonlight;
 
 import io.github.nerjalnosk.jsonlight.elements.*;
+import io.github.nerjalnosk.jsonlight.parser.ByteParser;
+import io.github.nerjalnosk.jsonlight.parser.FileParser;
+import io.github.nerjalnosk.jsonlight.parser.IncrementalParser;
+import io.github.nerjalnosk.jsonlight.parser.IndexedParser;
+import io.github.nerjalnosk.jsonlight.parser.KeyCache;
+import io.github.nerjalnosk.jsonlight.parser.ParallelArrayParser;
+import io.github.nerjalnosk.jsonlight.parser.MappedFileParser;
+import io.github.nerjalnosk.jsonlight.parser.ParserOptions;
+import io.github.nerjalnosk.jsonlight.parser.StringParser;
 import io.github.nerjalnosk.jsonlight.parser.options.*;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.platform.commons.logging.Logger;
 import org.junit.platform.commons.logging.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -144,11 +171,607 @@ class JsonParserTest {
      */
     @Test
     @Order(7)
-    void parseFile() {
+    void parseFile(@TempDir Path dir) throws IOException, JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.ChildNotFoundException {
+        File f = dir.resolve("test.json5").toFile();
+        Files.write(f.toPath(), "{\"a\": [1, 2, 3], b: {\"c\": \"d\"} // comment\n}".getBytes(StandardCharsets.UTF_8));
+
+        object = JsonParser.parseFile(f).getAsJsonObject();
+        assertEquals(3, object.get("a").getAsJsonArray().size());
+        assertEquals("d", object.get("b").getAsJsonObject().getString("c"));
+
+        object = JsonParser.parseFile(f, true).getAsJsonObject();
+        assertEquals(3, object.get("a").getAsJsonArray().size());
+        assertEquals("d", object.get("b").getAsJsonObject().getString("c"));
+
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 300; i++) builder.append("{\"\u00e9\": \"value ").append(i).append("\"},\n");
+        builder.append("0]");
+        Files.write(f.toPath(), builder.toString().getBytes(StandardCharsets.UTF_8));
+        array = new MappedFileParser(f, new ParserOptions.Builder().json5().build(), 8).parse().getAsJsonArray();
+        assertEquals(301, array.size());
+        assertEquals("value 123", array.getObject(123).getString("\u00e9"));
     }
 
+    /**
+     * Test {@link FileParser} over a source larger than its buffer
+     */
     @Test
     @Order(8)
-    void testParseFile() {
+    void testParseFile() throws JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.ChildNotFoundException {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            builder.append("{\"key\": ").append(i).append(", \"value\": \"some string ").append(i).append("\"},\n");
+        }
+        builder.append("12345678901234567890]");
+        FileParser parser = new FileParser(new StringReader(builder.toString()),
+                new ParserOptions.Builder().json5().build(), 16);
+
+        array = parser.parse().getAsJsonArray();
+        assertEquals(1001, array.size());
+        assertEquals(999, array.getObject(999).get("key").getAsInt());
+        assertEquals("some string 500", array.getObject(500).getString("value"));
+        assertEquals("12345678901234567890", array.get(1000).getAsBigInt().toString());
+    }
+
+    /**
+     * Test {@link JsonParser#parseBytes(byte[])} and
+     * {@link JsonParser#parseStream(java.io.InputStream)}
+     */
+    @Test
+    @Order(9)
+    void parseBytes() throws JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.ChildNotFoundException {
+        String s = "{\"name\": \"caf\u00e9 \u65e5\u672c \ud83d\ude00\", \"n\": [1, 2.5, true, null]} // \u00e9";
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+
+        object = JsonParser.parseBytes(bytes).getAsJsonObject();
+        assertEquals("caf\u00e9 \u65e5\u672c \ud83d\ude00", object.getString("name"));
+        assertEquals(4, object.get("n").getAsJsonArray().size());
+
+        object = JsonParser.parseBytes(ByteBuffer.wrap(bytes)).getAsJsonObject();
+        assertEquals("caf\u00e9 \u65e5\u672c \ud83d\ude00", object.getString("name"));
+
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) builder.append("\"\u00e9l\u00e9ment ").append(i).append("\",");
+        builder.append("0]");
+        ByteParser parser = new ByteParser(new ByteArrayInputStream(builder.toString().getBytes(StandardCharsets.UTF_8)),
+                new ParserOptions.Builder().json5().build(), 7);
+        array = parser.parse().getAsJsonArray();
+        assertEquals(501, array.size());
+        assertEquals("\u00e9l\u00e9ment 321", array.getString(321));
+
+        assertThrows(JsonError.JsonParseException.class,
+                () -> JsonParser.parseBytes(new byte[]{'[', '"', (byte) 0xC3, '"', ']'}));
+    }
+
+    /**
+     * Test {@link IncrementalParser} with chunks
+     * split at every position
+     */
+    @Test
+    @Order(10)
+    void incrementalParse() throws JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.ChildNotFoundException {
+        String s = "// first\n{\"a\": \"}]\\n\u00e9\", /* ] */ b: [1, 2]} 12.5 \"x\" [true]{c: 3}[null, false, \"a\\tb\"]";
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        for (int size = 1; size < 5; size++) {
+            IncrementalParser parser = new IncrementalParser();
+            List<JsonElement> elements = new ArrayList<>();
+            for (int i = 0; i < bytes.length; i += size) {
+                elements.addAll(parser.feed(ByteBuffer.wrap(bytes, i, Math.min(size, bytes.length - i))));
+            }
+            elements.addAll(parser.endOfInput());
+
+            assertEquals(6, elements.size());
+            object = elements.get(0).getAsJsonObject();
+            assertEquals("}]\n\u00e9", object.getString("a"));
+            assertEquals(2, object.get("b").getAsJsonArray().size());
+            assertEquals(12.5, elements.get(1).getAsDouble());
+            assertEquals("x", elements.get(2).getAsString());
+            assertTrue(elements.get(3).getAsJsonArray().get(0).getAsBoolean());
+            assertFalse(elements.get(5).getAsJsonArray().get(1).getAsBoolean());
+            assertEquals("a\tb", elements.get(5).getAsJsonArray().get(2).getAsString());
+        }
+
+        IncrementalParser parser = new IncrementalParser();
+        assertTrue(parser.feed("[1, 2".toCharArray()).isEmpty());
+        assertEquals(1, parser.feed(", 3] 4".toCharArray()).size());
+        assertEquals(4, parser.endOfInput().get(0).getAsInt());
+
+        // errors are raised as soon as read, without waiting for the root's end
+        IncrementalParser errored = new IncrementalParser();
+        assertThrows(JsonError.JsonParseException.class, () -> errored.feed("[1, 2 : ".toCharArray()));
+        errored.reset();
+        assertEquals(1, errored.feed("[]".toCharArray()).size());
+    }
+
+    /**
+     * Test {@link JsonParser#parseDocuments(java.io.Reader)}
+     * and {@link NdjsonWriter}
+     */
+    @Test
+    @Order(11)
+    void ndjson() throws IOException, JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.RecursiveJsonElementException, JsonError.ChildNotFoundException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200; i++) builder.append("{\"id\": ").append(i).append(", \"tags\": [\"a\", \"b\"]}\n");
+        builder.append("[1, 2]{\"last\": true}");
+        List<JsonElement> elements = JsonParser.parseDocuments(new StringReader(builder.toString()))
+                .collect(Collectors.toList());
+        assertEquals(202, elements.size());
+        assertEquals(150, elements.get(150).getAsJsonObject().get("id").getAsInt());
+        assertTrue(elements.get(201).getAsJsonObject().getBoolean("last"));
+
+        StringWriter out = new StringWriter();
+        try (NdjsonWriter writer = new NdjsonWriter(out, new ParseSet(), 64)) {
+            writer.writeAll(elements);
+        }
+        String[] lines = out.toString().split("\n");
+        assertEquals(202, lines.length);
+        assertEquals(42, JsonParser.jsonify(lines[42]).getAsJsonObject().get("id").getAsInt());
+        assertEquals(202, JsonParser.parseDocuments(new StringReader(out.toString())).count());
+
+        // records stay single-lined whatever the set's options
+        ParseSet set = new ParseSet();
+        set.addOptions(JsonArray.class, ArrayParseOptions.extended());
+        JsonElement record = JsonParser.jsonify("[1 // a */ b\n,2,\"x\\ny\",{\"a\":1}]");
+        out = new StringWriter();
+        try (NdjsonWriter writer = new NdjsonWriter(out, set)) {
+            writer.write(record);
+            writer.write(record);
+        }
+        lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("/* a * / b*/"));
+        JsonArray read = JsonParser.jsonify(lines[1]).getAsJsonArray();
+        assertEquals(4, read.size());
+        assertEquals("x\ny", read.getString(2));
+        assertEquals(1, read.getObject(3).get("a").getAsInt());
+
+        assertThrows(JsonError.UncheckedJsonParseException.class,
+                () -> JsonParser.parseDocuments(new StringReader("{} {a: }")).count());
+    }
+
+    /**
+     * Test {@link JsonParser#jsonifyParallel(String)}
+     */
+    @Test
+    @Order(12)
+    void parallelParse() throws JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.ChildNotFoundException {
+        StringBuilder builder = new StringBuilder("[\n");
+        for (int i = 0; i < 20000; i++) {
+            builder.append("{\"id\": ").append(i).append(", \"text\": \"a, [b] {c}\"} /* item ").append(i).append(" */,\n");
+        }
+        builder.append("]");
+        String s = builder.toString();
+        assertTrue(s.length() > ParallelArrayParser.MIN_PARALLEL_SIZE);
+
+        array = JsonParser.jsonifyParallel(s).getAsJsonArray();
+        JsonArray sequential = JsonParser.jsonify(s).getAsJsonArray();
+        assertEquals(sequential.size(), array.size());
+        assertEquals(12345, array.getObject(12345).get("id").getAsInt());
+        assertEquals("a, [b] {c}", array.getObject(19999).getString("text"));
+
+        assertThrows(JsonError.JsonParseException.class, () -> JsonParser.jsonifyParallel(s.replace("12345", "12 345")));
+    }
+
+    /**
+     * Test {@link IndexedParser} against the
+     * {@link ByteParser}
+     */
+    @Test
+    @Order(13)
+    void indexedParse() throws JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.ChildNotFoundException, JsonError.RecursiveJsonElementException {
+        StringBuilder builder = new StringBuilder("\ufeff [");
+        for (int i = 0; i < 300; i++) {
+            builder.append("{\"id\":").append(i).append(",\"s\": \"").append(i % 7 == 0 ? "\\\\" : "")
+                    .append("a\\\"b\\\\\\n{\u00e9},").append(i).append("\", \"n\" : [").append(i).append(".5, -")
+                    .append(i).append("e3, true, false, null, [], {}]}").append(i % 3 == 0 ? ",\n" : ", ");
+        }
+        builder.append("\"end\"]\n");
+        byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        // fails on any fallback to the state parser
+        array = new IndexedParser(bytes) {
+            @Override
+            public void read() {
+                fail("unexpected fallback");
+            }
+        }.parse().getAsJsonArray();
+        assertEquals(301, array.size());
+        assertEquals("a\"b\\\n{\u00e9},43", array.getObject(43).getString("s"));
+        assertEquals(JsonParser.stringify(new ByteParser(bytes).parse()), JsonParser.stringify(array));
+
+        // features left to the byte parser
+        object = JsonParser.parseBytes("{a: [1, 2,], b: \"\\s\"} // c".getBytes(StandardCharsets.UTF_8))
+                .getAsJsonObject();
+        assertEquals(2, object.get("a").getAsJsonArray().size());
+        assertThrows(JsonError.JsonParseException.class,
+                () -> JsonParser.parseBytes("{\"a\": 1 \"b\": 2}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JsonError.JsonParseException.class,
+                () -> JsonParser.parseBytes("[\"a\", \"b]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Test {@link JsonParser#jsonifyLazy(String)}
+     */
+    @Test
+    @Order(14)
+    void lazyParse() throws JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.ChildNotFoundException, JsonError.RecursiveJsonElementException {
+        String s = "// root\n{\n  \"a\": {\"b\": [1, {\"c\": \"}]\"} /* [ */, 3]},\n  \"d\": [true, \"x\"],\n" +
+                "  \"e\": 2.5,\n  \"f\": {\"g\": [1 2]}\n}";
+        object = JsonParser.jsonifyLazy(s).getAsJsonObject();
+        assertEquals(4, object.size());
+        assertEquals(2.5, object.get("e").getAsDouble());
+        JsonObject a = object.getObject("a");
+        assertEquals("}]", a.getArray("b").getObject(1).getString("c"));
+        assertEquals("x", object.getArray("d").getString(1));
+
+        // errors in untouched subtrees are only raised upon access
+        JsonArray g = object.getObject("f").getArray("g");
+        assertThrows(JsonError.UncheckedJsonParseException.class, g::size);
+        assertThrows(JsonError.UncheckedJsonParseException.class, () -> g.get(0));
+
+        String valid = s.replace("[1 2]", "[1, 2]");
+        assertEquals(JsonParser.stringify(JsonParser.jsonify(valid)), JsonParser.stringify(JsonParser.jsonifyLazy(valid)));
+        assertThrows(JsonError.JsonParseException.class, () -> JsonParser.jsonifyLazy("{\"a\": [1], \"b\" 2}"));
+    }
+
+    /**
+     * Test {@link KeyCache} sharing through
+     * parser options
+     */
+    @Test
+    @Order(15)
+    void keyCache() throws JsonError.JsonParseException, JsonError.JsonElementTypeException {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) builder.append("{\"id\": ").append(i).append(", name: \"n\"},");
+        builder.append("{}]");
+        String s = builder.toString();
+        KeyCache cache = new KeyCache();
+        ParserOptions options = new ParserOptions.Builder().json5().classic().keyCache(cache).build();
+
+        array = new StringParser(s, options).parse().getAsJsonArray();
+        assertEquals(2, cache.getMisses());
+        assertEquals(198, cache.getHits());
+        List<String> keys = new ArrayList<>();
+        array.getObject(0).forEach((k, v) -> keys.add(k));
+        array.getObject(99).forEach((k, v) -> assertTrue(keys.stream().anyMatch(key -> key == k)));
+
+        String json = s.replace("name", "\"name\"");
+        JsonArray indexed = new IndexedParser(json.getBytes(StandardCharsets.UTF_8), options).parse().getAsJsonArray();
+        assertEquals(398, cache.getHits());
+        indexed.getObject(42).forEach((k, v) -> assertTrue(keys.stream().anyMatch(key -> key == k)));
+    }
+
+    /**
+     * Test {@link StringParser} and {@link IndexedParser}
+     * numbers accumulation into primitives
+     */
+    @Test
+    @Order(16)
+    void numberFastPath() throws JsonError.JsonParseException, JsonError.JsonElementTypeException {
+        String s = "[9007199254740993, 0.05, 1.5e3, -2.5, 123456789012345678901, 2.50]";
+        JsonArray parsed = StringParser.parse(s).getAsJsonArray();
+        JsonArray indexed = JsonParser.parseBytes(s.getBytes(StandardCharsets.UTF_8)).getAsJsonArray();
+        for (JsonArray a : new JsonArray[] {parsed, indexed}) {
+            assertEquals(9007199254740993L, a.get(0).getAsLong());
+            assertEquals(0.05, a.get(1).getAsDouble());
+            assertEquals(1500, a.get(2).getAsDouble());
+            assertEquals(-2.5, a.get(3).getAsDouble());
+            assertEquals("123456789012345678901", a.get(4).getAsBigInt().toString());
+        }
+
+        ParserOptions options = new ParserOptions.Builder().json5().classic().exactDecimal().build();
+        parsed = new StringParser(s, options).parse().getAsJsonArray();
+        indexed = new IndexedParser(s.getBytes(StandardCharsets.UTF_8), options).parse().getAsJsonArray();
+        assertEquals(2, parsed.get(5).getAsBigDecimal().scale());
+        assertEquals(2, indexed.get(5).getAsBigDecimal().scale());
+    }
+
+    /**
+     * Test {@link StringParser} hexadecimal numbers
+     * accumulation
+     */
+    @Test
+    @Order(17)
+    void hexNumbers() throws JsonError.JsonParseException, JsonError.JsonElementTypeException {
+        array = StringParser.parse("[0xFF00FF, 0xdeadBEEF, 0x1F.8, 0x7FFFFFFFFFFFFFFF, 0x10000000000000000, 0x0.001]")
+                .getAsJsonArray();
+        assertEquals(0xFF00FF, array.get(0).getAsInt());
+        assertEquals(0xDEADBEEFL, array.get(1).getAsLong());
+        assertEquals(31.5, array.get(2).getAsDouble());
+        assertEquals(Long.MAX_VALUE, array.get(3).getAsLong());
+        assertEquals(BigInteger.ONE.shiftLeft(64), array.get(4).getAsBigInt());
+        assertEquals(new BigDecimal("0.000244140625"), array.get(5).getAsBigDecimal());
+    }
+
+    /**
+     * Test {@link JsonNumber} values held as primitives
+     */
+    @Test
+    @Order(18)
+    void primitiveNumbers() throws JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.RecursiveJsonElementException {
+        array = StringParser.parse("[42, 1.5, 123456789012345678901, NaN]").getAsJsonArray();
+        assertInstanceOf(Long.class, array.get(0).getAsNumber());
+        assertInstanceOf(Double.class, array.get(1).getAsNumber());
+        assertInstanceOf(BigDecimal.class, array.get(2).getAsNumber());
+        assertEquals(new BigDecimal("1.5"), array.get(1).getAsBigDecimal());
+        assertTrue(Double.isNaN(array.get(3).getAsDouble()));
+        assertEquals("NaN", JsonParser.stringify(array.get(3)));
+
+        JsonNumber number = array.get(0).getAsJsonNumber().clone();
+        assertEquals(42, number.getAsInt());
+        number.setValue(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, number.getAsLong());
+        assertEquals(BigInteger.valueOf(Long.MAX_VALUE), number.getAsBigInt());
+        assertEquals(42, array.get(0).getAsLong());
+    }
+
+    /**
+     * Test {@link JsonNumber} stringification, in plain
+     * and scientific notations
+     */
+    @Test
+    @Order(19)
+    void numberWriter() throws JsonError.RecursiveJsonElementException {
+        NumberParseOptions plain = new NumberParseOptions();
+        assertEquals("1.5", JsonParser.stringify(new JsonNumber(1.5)));
+        assertEquals("-0.05", JsonParser.stringify(new JsonNumber(-0.05)));
+        assertEquals("0.3", JsonParser.stringify(new JsonNumber(0.1 + 0.2)));
+        assertEquals("100000000000000000000", JsonParser.stringify(new JsonNumber(1e20)));
+        assertEquals("0", JsonParser.stringify(new JsonNumber(1e-10)));
+        assertEquals("0.3", JsonParser.stringify(new JsonNumber(new BigDecimal("0.30000000000000004"), plain)));
+        assertEquals("0.000001", JsonParser.stringify(new JsonNumber(5e-7)));
+        assertEquals("0.000001", JsonParser.stringify(new JsonNumber(new BigDecimal("0.0000005"), plain)));
+        assertEquals("1", JsonParser.stringify(new JsonNumber(0.9999996)));
+        assertEquals("1", JsonParser.stringify(new JsonNumber(new BigDecimal("0.9999996"), plain)));
+        assertEquals(String.valueOf(Long.MIN_VALUE), JsonParser.stringify(new JsonNumber(Long.MIN_VALUE)));
+
+        NumberParseOptions floating = new NumberParseOptions(true, NumberParseOptions.NumberFormat.DECIMAL, 3);
+        assertEquals("42.0", JsonParser.stringify(new JsonNumber(42, floating)));
+        assertEquals("-0.001", JsonParser.stringify(new JsonNumber(-0.0012345, floating)));
+        assertEquals("-0.001", JsonParser.stringify(new JsonNumber(new BigDecimal("-0.0012345"), floating)));
+        assertEquals("-0.002", JsonParser.stringify(new JsonNumber(-0.0015, floating)));
+        assertEquals("-0.002", JsonParser.stringify(new JsonNumber(new BigDecimal("-0.0015"), floating)));
+        assertEquals("2.50", JsonParser.stringify(new JsonNumber(new BigDecimal("2.50"), floating)));
+
+        NumberParseOptions scientific = new NumberParseOptions(NumberParseOptions.NumberFormat.SCIENTIFIC);
+        assertEquals("1.2345E3", JsonParser.stringify(new JsonNumber(1234.5, scientific)));
+        assertEquals("-2.5E-7", JsonParser.stringify(new JsonNumber(-2.5e-7, scientific)));
+        assertEquals("1.2E4", JsonParser.stringify(new JsonNumber(12000L, scientific)));
+        // shortest digits, whatever the JDK's Double#toString
+        assertEquals("5E-324", JsonParser.stringify(new JsonNumber(Double.MIN_VALUE, scientific)));
+        assertEquals("-2E-323", JsonParser.stringify(new JsonNumber(-2e-323, scientific)));
+        assertEquals("2E23", JsonParser.stringify(new JsonNumber(2e23, scientific)));
+        assertEquals("1.7976931348623157E308", JsonParser.stringify(new JsonNumber(Double.MAX_VALUE, scientific)));
+    }
+
+    /**
+     * Test {@link JsonParser#stringify(JsonElement, ParseSet)}
+     * with a set shared across threads
+     */
+    @Test
+    @Order(20)
+    void concurrentStringify() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            JsonObject item = new JsonObject();
+            item.add("ratio", new JsonNumber(i / 7d));
+            item.add("count", new JsonNumber(i * 1000L));
+            array.add(item);
+        }
+        ParseSet set = new ParseSet();
+        set.addOptions(JsonNumber.class, new NumberParseOptions(true, NumberParseOptions.NumberFormat.SCIENTIFIC, 4));
+        String expected = JsonParser.stringify(array, set);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) results.add(executor.submit(() -> JsonParser.stringify(array, set)));
+            for (Future<String> result : results) assertEquals(expected, result.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test {@link JsonParser#write(JsonElement, Appendable, ParseSet)}
+     * and its {@link java.io.Writer} and {@link java.io.OutputStream}
+     * variants
+     */
+    @Test
+    @Order(21)
+    void streamingWrite() throws Exception {
+        JsonElement element = StringParser.parse("{\"a\": [1 /* one */, 2, 3], \"b\": {\"c\": \"d\"} // end\n}");
+        ParseSet set = new ParseSet();
+        set.addOptions(JsonArray.class, new ArrayParseOptions(ArrayParseOptions.ArrayFormat.INLINE));
+        set.addOptions(JsonObject.class, new ObjectParseOptions(ObjectParseOptions.ObjectFormat.UNQUOTED_KEYS));
+        String expected = JsonParser.stringify(element, set);
+        assertTrue(expected.contains("2, 3"));
+
+        StringWriter writer = new StringWriter();
+        JsonParser.write(element, writer, set);
+        assertEquals(expected, writer.toString());
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        JsonParser.write(element, stream, set);
+        assertEquals(expected, new String(stream.toByteArray(), StandardCharsets.UTF_8));
+
+        StringBuilder builder = new StringBuilder();
+        JsonParser.write(element, builder, new ParseSet());
+        assertEquals(JsonParser.stringify(element), builder.toString());
+
+        // numbers are written to other sinks without a builder
+        JsonArray numbers = new JsonArray();
+        numbers.add(new JsonNumber(Long.MIN_VALUE));
+        numbers.add(new JsonNumber(-0.0012345));
+        numbers.add(new JsonNumber(1e-300));
+        numbers.add(new JsonNumber(new BigDecimal("2.50"), new NumberParseOptions(true, NumberParseOptions.NumberFormat.DECIMAL, 3)));
+        numbers.add(new JsonNumber(-12000L, new NumberParseOptions(NumberParseOptions.NumberFormat.SCIENTIFIC)));
+        writer = new StringWriter();
+        JsonParser.write(numbers, writer, set);
+        assertEquals(JsonParser.stringify(numbers, set), writer.toString());
+        assertEquals("[ -9223372036854775808, -0.001235, 0, 2.50, -1.2E4 ]", writer.toString());
+    }
+
+    /**
+     * Test {@link Utf8Writer} and
+     * {@link JsonParser#writeBytes(JsonElement, ParseSet)}
+     */
+    @Test
+    @Order(22)
+    void utf8Writer() throws Exception {
+        JsonElement element = StringParser.parse("{\"name\": \"caf\u00e9 \ud83d\ude00 \u4e2d\", \"n\": 255 /* max */, \"l\": [1, 2]}");
+        ParseSet set = new ParseSet();
+        set.addOptions(JsonString.class, new StringParseOptions(StringParseOptions.QuoteFormat.SINGLE_QUOTES));
+        set.addOptions(JsonNumber.class, new NumberParseOptions(NumberParseOptions.NumberFormat.HEXADECIMAL));
+        byte[] expected = JsonParser.stringify(element, set).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        Utf8Writer writer = new Utf8Writer(stream, 16);
+        JsonParser.write(element, writer, set);
+        writer.flush();
+        assertArrayEquals(expected, stream.toByteArray());
+
+        ByteBuffer buffer = JsonParser.writeBytes(element, set);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertArrayEquals(expected, bytes);
+
+        Utf8Writer memory = new Utf8Writer();
+        memory.append("\ud83d").append('x').append("\u00e9");
+        memory.flush();
+        assertArrayEquals("?x\u00e9".getBytes(StandardCharsets.UTF_8), memory.toByteArray());
+        memory.reset();
+        assertEquals(0, memory.size());
+    }
+
+    /**
+     * Test {@link Indentation} levels sharing
+     */
+    @Test
+    @Order(23)
+    void indentation() throws Exception {
+        Indentation root = Indentation.of("> ", "\t");
+        assertSame(root.next().next(), root.next().next());
+        assertEquals("> \t\t", root.next().next().toString());
+        assertEquals("> \t", root.next().appendTo(new StringBuilder()).toString());
+
+        array.add(new JsonArray());
+        array.getArray(0).add(new JsonNumber(1));
+        array.getArray(0).add(new JsonArray());
+        array.getArray(0).getArray(1).add(new JsonNumber(2));
+        assertEquals("[\n  [\n    1,\n    [\n      2\n    ]\n  ]\n]", JsonParser.stringify(array));
+        StringBuilder builder = new StringBuilder();
+        JsonParser.write(array, builder, new ParseSet(), 1, 1, '\t');
+        assertEquals(JsonParser.stringify(array, new ParseSet(), 1, 1, '\t'), builder.toString());
+    }
+
+    /**
+     * Test {@link JsonString} escaping, values and
+     * object keys alike
+     */
+    @Test
+    @Order(24)
+    void stringEscaping() throws JsonError.JsonParseException, JsonError.JsonElementTypeException,
+            JsonError.ChildNotFoundException, JsonError.RecursiveJsonElementException {
+        str.setValue("say \"hi\"\\\t\u0001 caf\u00e9");
+        assertEquals("\"say \\\"hi\\\"\\\\\\t\\u0001 caf\u00e9\"", JsonParser.stringify(str));
+        ParseSet set = new ParseSet();
+        set.addOptions(JsonString.class, new StringParseOptions(StringParseOptions.QuoteFormat.SINGLE_QUOTES));
+        str.setValue("it's \"ok\"");
+        assertEquals("'it\\'s \"ok\"'", JsonParser.stringify(str, set));
+
+        object.add("k\"ey", new JsonString("v"));
+        assertEquals("{\n  \"k\\\"ey\": \"v\"\n}", JsonParser.stringify(object));
+
+        ParserOptions options = new ParserOptions.Builder().json5().classic().unicodeParse().build();
+        String s = "{\"a\": \"x\\u2722y \u2722 \\\"q\\\" \\/\"}";
+        object = new StringParser(s, options).parse().getAsJsonObject();
+        assertEquals("x\u2722y \u2722 \"q\" /", object.getString("a"));
+        assertEquals("\"x\\u2722y \\u2722 \\\"q\\\" /\"", JsonParser.stringify(object.get("a")));
+        assertEquals(object.getString("a"), new StringParser(JsonParser.stringify(object), options).parse()
+                .getAsJsonObject().getString("a"));
+    }
+
+    /**
+     * Test {@link JsonParser#stringify(JsonElement)} cycles
+     * detection, shared elements included
+     */
+    @Test
+    @Order(25)
+    void cycleDetection() throws JsonError.RecursiveJsonElementException {
+        JsonArray shared = new JsonArray();
+        shared.add(new JsonNumber(1));
+        JsonArray root = new JsonArray();
+        JsonArray deep = root;
+        for (int i = 0; i < 500; i++) {
+            JsonArray child = new JsonArray();
+            deep.add(child);
+            deep.add(shared);
+            deep = child;
+        }
+        String s = JsonParser.stringify(root);
+        assertFalse(s.contains("<"));
+        assertFalse(shared.getId().isPresent());
+
+        JsonObject self = new JsonObject();
+        self.add("self", self);
+        assertThrows(JsonError.RecursiveJsonElementException.class, () -> JsonParser.stringify(self));
+        ParseSet set = new ParseSet();
+        set.addOptions(JsonObject.class, new ObjectParseOptions(ObjectParseOptions.ObjectFormat.DOUBLE_QUOTED_KEYS, false, true));
+        String circular = JsonParser.stringify(self, set);
+        long id = self.getId().orElseThrow(IllegalStateException::new);
+        assertEquals(String.format("<@%d> {\n  \"self\": <#%d>\n}", id, id), circular);
+        JsonObject other = new JsonObject();
+        other.add("other", other);
+        JsonParser.stringify(other, set);
+        assertTrue(other.getId().orElseThrow(IllegalStateException::new) > id);
+    }
+
+    /**
+     * Test {@link JsonElement#write(Appendable, ParseSet, String, String)}
+     * over a circular structure
+     */
+    @Test
+    @Order(26)
+    void singlePassStringify() throws JsonError.RecursiveJsonElementException, IOException {
+        ParseSet set = new ParseSet();
+        set.addOptions(JsonArray.class, new ArrayParseOptions(ArrayParseOptions.ArrayFormat.INLINE, 0, true));
+        JsonArray inner = new JsonArray();
+        JsonArray outer = new JsonArray();
+        outer.add(inner);
+        inner.add(outer);
+        inner.add(new JsonNumber(1));
+        assertFalse(outer.getId().isPresent());
+        StringBuilder builder = new StringBuilder("head ");
+        outer.write(builder, set, "", "");
+        long id = outer.getId().orElseThrow(IllegalStateException::new);
+        assertFalse(inner.getId().isPresent());
+        assertEquals(String.format("head <@%d> [ [ <#%d>, 1 ] ]", id, id), builder.toString());
+        assertEquals(builder.substring(5), JsonParser.stringify(outer, set));
+
+        // in-memory byte outputs are taken back on circular references as well
+        JsonArray loop = new JsonArray();
+        loop.add(loop);
+        Utf8Writer writer = new Utf8Writer();
+        writer.append("head ");
+        loop.write(writer, set, "", "");
+        id = loop.getId().orElseThrow(IllegalStateException::new);
+        String expected = String.format("head <@%d> [ <#%d> ]", id, id);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), writer.toByteArray());
+        JsonArray other = new JsonArray();
+        other.add(other);
+        ByteBuffer buffer = JsonParser.writeBytes(other, set);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertEquals(JsonParser.stringify(other, set), new String(bytes, StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, () -> new Utf8Writer(new ByteArrayOutputStream()).truncate(0));
     }
 }
@@ -236,4 +236,40 @@ class JsonArrayTest {
         array.setParseOptions(options);
         assertEquals("[ 0, 1, 2, 3, 4 ]", array.stringify());
     }
-}
\ No newline at end of file
+
+    @Test
+    void comments$indexing() throws JsonError.JsonElementTypeException {
+        JsonComment head = new JsonComment("head");
+        JsonComment middle = new JsonComment("middle");
+        JsonComment tail = new JsonComment("tail");
+        array.add(head);
+        array.add(new JsonNumber(0));
+        array.add(middle);
+        array.add(new JsonNumber(2));
+        array.add(tail);
+        array.add(1, new JsonNumber(1));
+
+        assertEquals(3, array.size());
+        for (int i = 0; i < 3; i++) assertEquals(i, array.get(i).getAsInt());
+        int n = 0;
+        for (JsonElement e : array) assertEquals(n++, e.getAsInt());
+        assertEquals(3, n);
+
+        List<JsonElement> all = new ArrayList<>();
+        array.forAll(all::add);
+        assertEquals(6, all.size());
+        assertSame(head, all.get(0));
+        assertSame(middle, all.get(2));
+        assertEquals(1, all.get(3).getAsInt());
+        assertSame(tail, all.get(5));
+
+        array.remove(0);
+        assertTrue(array.remove(middle));
+        all.clear();
+        array.forAll(all::add);
+        assertSame(head, all.get(0));
+        assertEquals(1, all.get(1).getAsInt());
+        assertSame(tail, all.get(3));
+        assertArrayEquals(new JsonComment[]{head, tail}, array.getAllComments());
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.nerjalnosk.jsonlight.elements;
+
+import io.github.nerjalnosk.jsonlight.JsonError;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonObjectTest {
+    @Test
+    void table() throws JsonError.ChildNotFoundException, JsonError.RecursiveJsonElementException,
+            JsonError.JsonElementTypeException {
+        JsonObject o = new JsonObject();
+        Map<String, JsonElement> reference = new LinkedHashMap<>();
+        Random random = new Random(23);
+        for (int i = 0; i < 5000; i++) {
+            String key = "k" + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                if (reference.remove(key) != null) o.remove(key);
+                else assertThrows(JsonError.ChildNotFoundException.class, () -> o.remove(key));
+            } else {
+                JsonElement value = new JsonNumber(i);
+                if (!reference.containsKey(key)) reference.put(key, value);
+                assertEquals(reference.get(key) == value, o.add(key, value));
+            }
+        }
+        assertEquals(reference.size(), o.size());
+        List<String> keys = new ArrayList<>();
+        o.forEach((k, v) -> {
+            keys.add(k);
+            assertSame(reference.get(k), v);
+        });
+        assertEquals(new ArrayList<>(reference.keySet()), keys);
+
+        JsonObject small = new JsonObject();
+        small.add("a", new JsonNumber(1));
+        small.add(null, new JsonComment("c"));
+        small.add("b", new JsonNumber(2));
+        small.add("c", new JsonNumber(3));
+        assertTrue(small.rename("a", "d"));
+        assertFalse(small.rename("d", "b"));
+        assertEquals(2, small.forceRename("c", "b").getAsInt());
+        assertEquals(3, small.size());
+        List<String> all = small.allEntriesSet().stream().map(Map.Entry::getKey).collect(Collectors.toList());
+        assertEquals(Arrays.asList("d", null, "b"), all);
+        assertEquals(3, small.get("b").getAsInt());
+
+        // the entries set writes through to the object
+        Iterator<Map.Entry<String, JsonElement>> entries = small.allEntriesSet().iterator();
+        entries.next();
+        Map.Entry<String, JsonElement> comment = entries.next();
+        assertEquals("c", comment.setValue(new JsonComment("e")).getAsString());
+        assertThrows(UnsupportedOperationException.class, () -> comment.setValue(new JsonNumber(4)));
+        List<String> comments = new ArrayList<>();
+        small.forAllComments(c -> comments.add(c.getAsString()));
+        assertEquals(Collections.singletonList("e"), comments);
+        entries.remove();
+        assertTrue(small.allEntriesSet().removeIf(e -> "d".equals(e.getKey())));
+        assertFalse(small.contains("d"));
+        assertEquals(1, small.allEntriesSet().size());
+        small.forAllComments(c -> fail());
+    }
+
+    @Test
+    void smallTable() throws JsonError.ChildNotFoundException, JsonError.JsonElementTypeException {
+        JsonObject o = new JsonObject();
+        for (int i = 0; i < 8; i++) o.add("k" + i, new JsonNumber(i));
+        o.remove("k2");
+        o.remove("k5");
+        o.put("k2", new JsonNumber(20));
+        assertFalse(o.contains("k5"));
+        for (int i = 8; i < 20; i++) o.put("k" + i, new JsonNumber(i));
+        assertEquals(19, o.size());
+        assertEquals(20, o.get("k2").getAsInt());
+        assertEquals(19, o.get("k19").getAsInt());
+        List<String> keys = new ArrayList<>();
+        o.forEach((k, v) -> keys.add(k));
+        assertEquals(Arrays.asList("k0", "k1", "k3", "k4", "k6", "k7", "k2"), keys.subList(0, 7));
+    }
+}
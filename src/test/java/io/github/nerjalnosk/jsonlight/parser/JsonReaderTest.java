@@ -0,0 +1,195 @@
+package io.github.nerjalnosk.jsonlight.parser;
+
+import io.github.nerjalnosk.jsonlight.JsonError;
+import org.junit.jupiter.api.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReaderTest {
+
+    /**
+     * Reader only providing a single char at a time,
+     * to check buffer refills within tokens.
+     */
+    private static Reader trickle(String s) {
+        return new FilterReader(new StringReader(s)) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    @Test
+    void readObject() throws JsonError.JsonParseException {
+        String s = "{\"name\": \"caf\\u00e9\\n\", count: 12, 'big': 123456789012345678901, "
+                + "ratio: .5, hex: 0x1F, nan: NaN, neg: -Infinity, ok: true, none: null, "
+                + "list: [1, [2, {}], 'x',], // trailing comment\n}";
+        JsonReader reader = new JsonReader(trickle(s));
+
+        reader.beginObject();
+        assertEquals("name", reader.nextName());
+        assertEquals("caf\u00e9\n", reader.nextString());
+        assertEquals("count", reader.nextName());
+        assertEquals(12, reader.nextInt());
+        assertEquals("big", reader.nextName());
+        assertEquals(new BigInteger("123456789012345678901"), reader.nextNumber());
+        assertEquals("ratio", reader.nextName());
+        assertEquals(0.5, reader.nextDouble());
+        assertEquals("hex", reader.nextName());
+        assertEquals(31L, reader.nextLong());
+        assertEquals("nan", reader.nextName());
+        assertTrue(Double.isNaN(reader.nextDouble()));
+        assertEquals("neg", reader.nextName());
+        assertEquals(Double.NEGATIVE_INFINITY, reader.nextNumber());
+        assertEquals("ok", reader.nextName());
+        assertTrue(reader.nextBoolean());
+        assertEquals("none", reader.nextName());
+        reader.nextNull();
+        assertEquals("list", reader.nextName());
+        reader.skipValue();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    void readTokens() throws JsonError.JsonParseException {
+        JsonReader reader = new JsonReader("/* head */ <@1>[1.50, <#1>, \"a\" // tail\n]");
+        reader.setReportComments(true);
+
+        assertEquals(JsonToken.COMMENT, reader.nextToken());
+        assertEquals(" head ", reader.getText());
+        assertTrue(reader.isBlockComment());
+        assertEquals(1, reader.nextIdDeclaration());
+        reader.beginArray();
+        assertEquals(new BigDecimal("1.50"), reader.nextNumber());
+        assertEquals(1, reader.nextIdReference());
+        assertEquals(JsonToken.STRING, reader.nextToken());
+        assertEquals("a", reader.getText());
+        assertEquals(" tail", reader.nextComment());
+        assertFalse(reader.isBlockComment());
+        assertEquals(JsonToken.END_ARRAY, reader.nextToken());
+        assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+    }
+
+    @Test
+    void readErrors() {
+        assertThrows(JsonError.JsonParseException.class, () -> {
+            JsonReader reader = new JsonReader("[1, 2");
+            reader.beginArray();
+            reader.skipValue();
+            reader.skipValue();
+            reader.endArray();
+        });
+        assertThrows(JsonError.DisabledFeatureException.class, () -> {
+            JsonReader reader = new JsonReader(new StringReader("{a: 1}"), new ParserOptions.Builder().json4().build());
+            reader.beginObject();
+            reader.nextName();
+        });
+        assertThrows(JsonError.JsonParseException.class, () -> new JsonReader("[1 2]").skipValue());
+        assertThrows(JsonError.JsonParseException.class, () -> {
+            JsonReader reader = new JsonReader("{} {}");
+            reader.skipValue();
+            reader.peek();
+        });
+        assertThrows(JsonError.JsonParseException.class, () -> {
+            JsonReader reader = new JsonReader("[1.5]");
+            reader.beginArray();
+            reader.nextLong();
+        });
+        assertThrows(JsonError.JsonParseException.class, () -> {
+            JsonReader reader = new JsonReader("[-0x10]");
+            reader.beginArray();
+            reader.nextLong();
+        });
+        assertThrows(JsonError.JsonParseException.class, () -> StringParser.parse("[-0x10]"));
+    }
+
+    @Test
+    void autoClose() throws JsonError.JsonParseException {
+        JsonReader reader = new JsonReader(new StringReader("[[1, 'a"),
+                new ParserOptions.Builder().extended().build());
+        reader.beginArray();
+        reader.beginArray();
+        assertEquals(1, reader.nextInt());
+        assertEquals("a", reader.nextString());
+        reader.endArray();
+        reader.endArray();
+        assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    void eventParser() throws JsonError.JsonParseException {
+        StringBuilder events = new StringBuilder();
+        JsonEventParser.parse("{a: [1, 'b', true, null], // c\n c: <@1>{d: <#1>}}", new JsonEventHandler() {
+            @Override
+            public void startObject() {
+                events.append('{');
+            }
+
+            @Override
+            public void endObject() {
+                events.append('}');
+            }
+
+            @Override
+            public void startArray() {
+                events.append('[');
+            }
+
+            @Override
+            public void endArray() {
+                events.append(']');
+            }
+
+            @Override
+            public void key(String key) {
+                events.append(key).append(':');
+            }
+
+            @Override
+            public void value(String value) {
+                events.append('"').append(value).append('"');
+            }
+
+            @Override
+            public void value(Number value) {
+                events.append(value);
+            }
+
+            @Override
+            public void value(boolean value) {
+                events.append(value);
+            }
+
+            @Override
+            public void nullValue() {
+                events.append("null");
+            }
+
+            @Override
+            public void comment(String comment, boolean block) {
+                events.append("/*").append(comment).append("*/");
+            }
+
+            @Override
+            public void idDeclared(int id) {
+                events.append("<@").append(id).append('>');
+            }
+
+            @Override
+            public void idReference(int id) {
+                events.append("<#").append(id).append('>');
+            }
+        });
+        assertEquals("{a:[1\"b\"truenull]/* c*/c:<@1>{d:<#1>}}", events.toString());
+    }
+}